@@ -1,60 +1,115 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.RequestBookingStatus;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.StreamProxy;
 
+import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
+
+import static ru.practicum.shareit.client.ResponseCache.exact;
+import static ru.practicum.shareit.client.ResponseCache.resource;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
+    private static final String ITEMS = "/items";
+    private static final Predicate<String> BOOKED_ITEMS = resource(ITEMS).and(exact(ITEMS + "/search").negate());
+
+    private final ResponseCache responseCache;
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, ObjectProvider<WebClient> webClient,
+                         ResponseCache responseCache, StreamProxy streamProxy) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient.getIfAvailable(),
+                null,
+                streamProxy
         );
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> getById(int userId, int bookingId) {
+    public Mono<ResponseEntity<Object>> getById(int userId, int bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllByState(int userId, RequestBookingStatus state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<Object>> getAllByState(int userId, RequestBookingStatus state, Integer from, Integer size,
+                                                      String after) {
+        return getPage("", userId, state, from, size, after);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllByStateForOwner(int userId, RequestBookingStatus state, Integer from, Integer size,
+                                                              String after) {
+        return getPage("/owner", userId, state, from, size, after);
+    }
+
+    public Mono<ResponseEntity<ResponseBodyEmitter>> export(int userId, boolean owner) {
+        Map<String, Object> parameters = Map.of("owner", owner);
+        return getStream("/export?owner={owner}", userId, MediaType.parseMediaType(BookingController.NDJSON), parameters);
     }
 
-    public ResponseEntity<Object> getAllByStateForOwner(int userId, RequestBookingStatus state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> create(int userId, BookingRequestDto requestDto) {
+        return post("", userId, requestDto)
+                .doOnNext(response -> responseCache.invalidate(response, bookedItem(response)));
+    }
+
+    public Mono<ResponseEntity<Object>> approve(int userId, int bookingId, boolean approved) {
+        Map<String, Object> parameters = Map.of("approved", approved);
+        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null)
+                .doOnNext(response -> responseCache.invalidate(response, bookedItem(response)));
+    }
+
+    public Mono<ResponseEntity<Object>> approveBatch(int userId, List<BookingDecisionDto> decisions) {
+        return patch("/approve-batch", userId, decisions)
+                .doOnNext(response -> responseCache.invalidate(response, BOOKED_ITEMS));
+    }
+
+    private Mono<ResponseEntity<Object>> getPage(String path, int userId, RequestBookingStatus state, Integer from, Integer size,
+                                                 String after) {
+        if (after == null) {
+            Map<String, Object> parameters = Map.of(
+                    "state", state.name(),
+                    "from", from,
+                    "size", size
+            );
+            return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
-                "from", from,
+                "after", after,
                 "size", size
         );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return get(path + "?state={state}&after={after}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> create(int userId, BookingRequestDto requestDto) {
-        return post("", userId, requestDto);
-    }
-
-    public ResponseEntity<Object> approve(int userId, int bookingId, boolean approved) {
-        Map<String, Object> parameters = Map.of("approved", approved);
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+    private static Predicate<String> bookedItem(ResponseEntity<Object> response) {
+        if (response.getBody() instanceof Map && ((Map<?, ?>) response.getBody()).get("item") instanceof Map) {
+            Object itemId = ((Map<?, ?>) ((Map<?, ?>) response.getBody()).get("item")).get("id");
+            if (itemId != null) {
+                return resource(ITEMS + "/" + itemId).or(exact(ITEMS)).or(resource(ITEMS + "/search/free"));
+            }
+        }
+        return BOOKED_ITEMS;
     }
 }
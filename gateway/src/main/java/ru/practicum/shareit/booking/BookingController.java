@@ -1,55 +1,99 @@
 package ru.practicum.shareit.booking;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.RequestBookingStatus;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.function.Function;
 
 @Validated
-@RestController
 @RequestMapping(path = "/bookings")
-@RequiredArgsConstructor
-public class BookingController {
+public abstract class BookingController<R> {
+    public static final String NDJSON = "application/x-ndjson";
+
     private final BookingClient bookingClient;
+    private final Function<Mono<ResponseEntity<Object>>, R> respond;
+
+    protected BookingController(BookingClient bookingClient, Function<Mono<ResponseEntity<Object>>, R> respond) {
+        this.bookingClient = bookingClient;
+        this.respond = respond;
+    }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") int userId,
-                                          @PathVariable int bookingId) {
-        return bookingClient.getById(userId, bookingId);
+    public R getById(@RequestHeader("X-Sharer-User-Id") int userId,
+                     @PathVariable int bookingId) {
+        return respond.apply(bookingClient.getById(userId, bookingId));
     }
 
     @GetMapping()
-    public ResponseEntity<Object> getAllByState(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                @RequestParam(defaultValue = "ALL") @Valid RequestBookingStatus state,
-                                                @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                @RequestParam(defaultValue = "20") @Positive int size) {
-        return bookingClient.getAllByState(userId, state, from, size);
+    public R getAllByState(@RequestHeader("X-Sharer-User-Id") int userId,
+                           @RequestParam(defaultValue = "ALL") @Valid RequestBookingStatus state,
+                           @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                           @RequestParam(defaultValue = "20") @Positive int size,
+                           @RequestParam(required = false) String after) {
+        return respond.apply(bookingClient.getAllByState(userId, state, from, size, after));
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllByStateForOwner(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                        @RequestParam(defaultValue = "ALL") @Valid RequestBookingStatus state,
-                                                        @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                        @RequestParam(defaultValue = "20") @Positive int size) {
-        return bookingClient.getAllByStateForOwner(userId, state, from, size);
+    public R getAllByStateForOwner(@RequestHeader("X-Sharer-User-Id") int userId,
+                                   @RequestParam(defaultValue = "ALL") @Valid RequestBookingStatus state,
+                                   @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                   @RequestParam(defaultValue = "20") @Positive int size,
+                                   @RequestParam(required = false) String after) {
+        return respond.apply(bookingClient.getAllByStateForOwner(userId, state, from, size, after));
+    }
+
+    // Streams are served asynchronously in both modes, the emitter is written after the handler returns
+    @GetMapping(value = "/export", produces = NDJSON)
+    public Mono<ResponseEntity<ResponseBodyEmitter>> export(@RequestHeader("X-Sharer-User-Id") int userId,
+                                                              @RequestParam(defaultValue = "false") boolean owner) {
+        return bookingClient.export(userId, owner);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") int userId,
-                                         @Valid @RequestBody BookingRequestDto bookingRequestDto) {
-        return bookingClient.create(userId, bookingRequestDto);
+    public R create(@RequestHeader("X-Sharer-User-Id") int userId,
+                    @Valid @RequestBody BookingRequestDto bookingRequestDto) {
+        return respond.apply(bookingClient.create(userId, bookingRequestDto));
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approve(@RequestHeader("X-Sharer-User-Id") int userId,
-                                          @PathVariable int bookingId,
-                                          @RequestParam boolean approved) {
-        return bookingClient.approve(userId, bookingId, approved);
+    public R approve(@RequestHeader("X-Sharer-User-Id") int userId,
+                     @PathVariable int bookingId,
+                     @RequestParam boolean approved) {
+        return respond.apply(bookingClient.approve(userId, bookingId, approved));
+    }
+
+    @PatchMapping("/approve-batch")
+    public R approveBatch(@RequestHeader("X-Sharer-User-Id") int userId,
+                          @RequestBody @NotEmpty @Size(max = 100) List<@Valid BookingDecisionDto> decisions) {
+        return respond.apply(bookingClient.approveBatch(userId, decisions));
+    }
+
+    @RestController
+    @ConditionalOnProperty(name = "shareit-gateway.proxy-mode", havingValue = "blocking", matchIfMissing = true)
+    public static class Blocking extends BookingController<ResponseEntity<Object>> {
+        public Blocking(BookingClient bookingClient) {
+            super(bookingClient, Mono::block);
+        }
+    }
+
+    @RestController
+    @ConditionalOnProperty(name = "shareit-gateway.proxy-mode", havingValue = "reactive")
+    public static class Reactive extends BookingController<Mono<ResponseEntity<Object>>> {
+        public Reactive(BookingClient bookingClient) {
+            super(bookingClient, Function.identity());
+        }
     }
 }
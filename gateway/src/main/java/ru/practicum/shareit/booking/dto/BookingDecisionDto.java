@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+
+@Data
+@Builder
+public class BookingDecisionDto {
+    @NotNull(message = "ID бронирования не может быть пустым")
+    private Integer bookingId;
+
+    @NotNull(message = "Решение по бронированию не может быть пустым")
+    private Boolean approved;
+}
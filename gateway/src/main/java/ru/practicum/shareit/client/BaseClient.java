@@ -1,81 +1,145 @@
 package ru.practicum.shareit.client;
 
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
 public class BaseClient {
+    private static final List<String> TRANSPORT_HEADERS = List.of(
+            HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.CONTENT_ENCODING,
+            HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.CONNECTION
+    );
+
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
     protected final RestTemplate rest;
+    private final WebClient webClient;
+    private final ResponseCache responseCache;
+    private final StreamProxy streamProxy;
+
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient) {
+        this(rest, webClient, null, null);
+    }
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient, @Nullable ResponseCache responseCache) {
+        this(rest, webClient, responseCache, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient, @Nullable ResponseCache responseCache,
+                      @Nullable StreamProxy streamProxy) {
         this.rest = rest;
+        this.webClient = webClient;
+        this.responseCache = responseCache != null && responseCache.isEnabled() ? responseCache : null;
+        this.streamProxy = streamProxy;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, int userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, int userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Integer userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Integer userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> getStream(String path, int userId, MediaType accept,
+                                                                  @Nullable Map<String, Object> parameters) {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setAccept(List.of(accept));
+        return streamProxy.get(expand(path, parameters), userId, headers);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Integer userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Integer userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, int userId, T body) {
+    protected Mono<ResponseEntity<Object>> postStream(String path, int userId, MediaType contentType, InputStream body) {
+        return webClient != null
+                ? exchangeStream(path, userId, contentType, body)
+                : Mono.fromCallable(() -> sendStream(path, userId, contentType, body));
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> put(String path, int userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, int userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, int userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, int userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, int userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, int userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, int userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Integer userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, int userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, int userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Integer userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Integer userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Integer userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Integer userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (webClient != null) {
+            return exchange(method, expand(path, parameters), userId, body);
+        }
+        return Mono.fromCallable(() -> sendBlocking(method, path, userId, parameters, body));
+    }
+
+    private <T> ResponseEntity<Object> sendBlocking(HttpMethod method, String path, Integer userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        if (responseCache != null && method == HttpMethod.GET) {
+            return sendCachedGet(expand(path, parameters), userId);
+        }
+        return sendRequest(method, path, userId, parameters, body);
+    }
+
+    private <T> ResponseEntity<Object> sendRequest(HttpMethod method, String path, Integer userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
         ResponseEntity<Object> shareitServerResponse;
@@ -91,6 +155,111 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    private ResponseEntity<Object> sendCachedGet(URI uri, Integer userId) {
+        ResponseCache.CachedResponse cached = responseCache.get(uri, userId);
+        if (cached != null && cached.isFresh()) {
+            return cached.toResponse();
+        }
+        HttpHeaders headers = defaultHeaders(userId);
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.getEtag());
+        }
+
+        ResponseEntity<Object> shareitServerResponse;
+        try {
+            shareitServerResponse = rest.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), Object.class);
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        }
+        if (shareitServerResponse.getStatusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+            return revalidated(uri, userId, cached, shareitServerResponse.getHeaders());
+        }
+        if (shareitServerResponse.getStatusCode().is2xxSuccessful()
+                && shareitServerResponse.getHeaders().getETag() != null) {
+            responseCache.put(uri, userId, gatewayHeaders(shareitServerResponse.getHeaders()),
+                    shareitServerResponse.getBody());
+        }
+        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    private ResponseEntity<Object> sendStream(String path, int userId, MediaType contentType, InputStream body) {
+        ResponseEntity<Object> shareitServerResponse;
+        try {
+            shareitServerResponse = rest.execute(expand(path, null), HttpMethod.POST, request -> {
+                request.getHeaders().addAll(defaultHeaders(userId));
+                request.getHeaders().setContentType(contentType);
+                StreamUtils.copy(body, request.getBody());
+            }, rest.responseEntityExtractor(Object.class));
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        }
+        return prepareGatewayResponse(shareitServerResponse);
+    }
+
+    private Mono<ResponseEntity<Object>> exchangeStream(String path, int userId, MediaType contentType, InputStream body) {
+        Flux<DataBuffer> content = DataBufferUtils.readInputStream(() -> body, DefaultDataBufferFactory.sharedInstance,
+                        STREAM_BUFFER_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+        return webClient.post()
+                .uri(expand(path, null))
+                .headers(headers -> headers.addAll(defaultHeaders(userId)))
+                .contentType(contentType)
+                .body(BodyInserters.fromDataBuffers(content))
+                .exchangeToMono(BaseClient::prepareGatewayResponse);
+    }
+
+    private <T> Mono<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, Integer userId, @Nullable T body) {
+        if (responseCache != null && method == HttpMethod.GET) {
+            return exchangeCachedGet(uri, userId);
+        }
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(uri)
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+        return (body != null ? request.bodyValue(body) : request)
+                .exchangeToMono(BaseClient::prepareGatewayResponse);
+    }
+
+    private Mono<ResponseEntity<Object>> exchangeCachedGet(URI uri, Integer userId) {
+        ResponseCache.CachedResponse cached = responseCache.get(uri, userId);
+        if (cached != null && cached.isFresh()) {
+            return Mono.just(cached.toResponse());
+        }
+        return webClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    headers.addAll(defaultHeaders(userId));
+                    if (cached != null) {
+                        headers.setIfNoneMatch(cached.getEtag());
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+                        return response.releaseBody()
+                                .then(Mono.fromSupplier(() -> revalidated(uri, userId, cached,
+                                        response.headers().asHttpHeaders())));
+                    }
+                    return prepareGatewayResponse(response).doOnNext(entity -> {
+                        if (entity.getStatusCode().is2xxSuccessful() && entity.getHeaders().getETag() != null) {
+                            responseCache.put(uri, userId, entity.getHeaders(), entity.getBody());
+                        }
+                    });
+                });
+    }
+
+    private ResponseEntity<Object> revalidated(URI uri, Integer userId, ResponseCache.CachedResponse cached,
+                                               HttpHeaders notModifiedHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(cached.getHeaders());
+        gatewayHeaders(notModifiedHeaders).forEach(headers::put);
+        return responseCache.put(uri, userId, headers, cached.getBody()).toResponse();
+    }
+
+    private URI expand(String path, @Nullable Map<String, Object> parameters) {
+        return parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+    }
+
     private HttpHeaders defaultHeaders(Integer userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -101,6 +270,28 @@ public class BaseClient {
         return headers;
     }
 
+    private static Mono<ResponseEntity<Object>> prepareGatewayResponse(ClientResponse response) {
+        if (response.statusCode().is2xxSuccessful()) {
+            HttpHeaders headers = gatewayHeaders(response.headers().asHttpHeaders());
+            return response.bodyToMono(Object.class)
+                    .map(body -> new ResponseEntity<>(body, headers, response.statusCode()))
+                    .defaultIfEmpty(new ResponseEntity<>(headers, response.statusCode()));
+        }
+
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.statusCode());
+
+        return response.bodyToMono(byte[].class)
+                .map(body -> responseBuilder.<Object>body(body))
+                .defaultIfEmpty(responseBuilder.build());
+    }
+
+    private static HttpHeaders gatewayHeaders(HttpHeaders shareitServerHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(shareitServerHeaders);
+        TRANSPORT_HEADERS.forEach(headers::remove);
+        return headers;
+    }
+
     private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
         if (response.getStatusCode().is2xxSuccessful()) {
             return response;
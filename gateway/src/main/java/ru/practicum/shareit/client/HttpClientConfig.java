@@ -0,0 +1,90 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class HttpClientConfig {
+
+    @Bean
+    public PoolingHttpClientConnectionManager shareitServerConnectionManager(
+            MeterRegistry meterRegistry,
+            @Value("${shareit-gateway.http.max-total:200}") int maxTotal,
+            @Value("${shareit-gateway.http.max-per-route:100}") int maxPerRoute,
+            @Value("${shareit-gateway.http.time-to-live:5m}") Duration timeToLive,
+            @Value("${shareit-gateway.http.validate-after-inactivity:2s}") Duration validateAfterInactivity) {
+        PoolingHttpClientConnectionManager connectionManager =
+                new PoolingHttpClientConnectionManager(timeToLive.toMillis(), TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity((int) validateAfterInactivity.toMillis());
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareitServerHttpClient(
+            PoolingHttpClientConnectionManager connectionManager,
+            @Value("${shareit-gateway.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-gateway.http.read-timeout:30s}") Duration readTimeout,
+            @Value("${shareit-gateway.http.connection-request-timeout:5s}") Duration connectionRequestTimeout,
+            @Value("${shareit-gateway.http.idle-timeout:30s}") Duration idleTimeout,
+            @Value("${shareit-gateway.http.compression:true}") boolean compression) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .setConnectionRequestTimeout((int) connectionRequestTimeout.toMillis())
+                .build();
+        HttpClientBuilder builder = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(idleTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        if (!compression) {
+            builder.disableContentCompression();
+        }
+        return builder.build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareitServerStreamHttpClient(
+            MeterRegistry meterRegistry,
+            @Value("${shareit-gateway.stream.max-total:100}") int maxTotal,
+            @Value("${shareit-gateway.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-gateway.http.read-timeout:30s}") Duration readTimeout) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxTotal);
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server-stream")
+                .bindTo(meterRegistry);
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .build();
+        return HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .disableContentCompression()
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory shareitServerRequestFactory(CloseableHttpClient shareitServerHttpClient) {
+        HttpComponentsClientHttpRequestFactory requestFactory =
+                new HttpComponentsClientHttpRequestFactory(shareitServerHttpClient);
+        requestFactory.setBufferRequestBody(false);
+        return requestFactory;
+    }
+}
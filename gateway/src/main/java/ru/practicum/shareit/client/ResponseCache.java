@@ -0,0 +1,102 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.function.Predicate;
+
+@Component
+public class ResponseCache {
+    private final String basePath;
+    private final boolean enabled;
+    private final Duration freshFor;
+    private final Cache<Key, CachedResponse> cache;
+
+    public ResponseCache(MeterRegistry meterRegistry,
+                         @Value("${shareit-server.url}") String serverUrl,
+                         @Value("${shareit-gateway.cache.enabled:true}") boolean enabled,
+                         @Value("${shareit-gateway.cache.maximum-size:10000}") long maximumSize,
+                         @Value("${shareit-gateway.cache.expire-after-write:10m}") Duration expireAfterWrite,
+                         @Value("${shareit-gateway.cache.fresh-for:0s}") Duration freshFor) {
+        this.basePath = URI.create(serverUrl).getPath().replaceAll("/+$", "");
+        this.enabled = enabled;
+        this.freshFor = freshFor;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway-responses");
+    }
+
+    public static Predicate<String> exact(String path) {
+        return path::equals;
+    }
+
+    public static Predicate<String> resource(String path) {
+        return cached -> cached.equals(path) || cached.startsWith(path + "/");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CachedResponse get(URI uri, Integer userId) {
+        return cache.getIfPresent(new Key(uri, userId));
+    }
+
+    public CachedResponse put(URI uri, Integer userId, HttpHeaders headers, Object body) {
+        CachedResponse cached = new CachedResponse(HttpHeaders.readOnlyHttpHeaders(headers), body,
+                System.nanoTime() + freshFor.toNanos());
+        cache.put(new Key(uri, userId), cached);
+        return cached;
+    }
+
+    public void invalidate(ResponseEntity<?> response, Predicate<String> paths) {
+        if (!enabled || response.getStatusCode().is4xxClientError()) {
+            return;
+        }
+        cache.asMap().keySet().removeIf(key -> paths.test(key.getUri().getPath().substring(basePath.length())));
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final URI uri;
+        private final Integer userId;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CachedResponse {
+        private final HttpHeaders headers;
+        private final Object body;
+        private final long freshUntil;
+
+        public String getEtag() {
+            return headers.getETag();
+        }
+
+        public boolean isFresh() {
+            return System.nanoTime() - freshUntil < 0;
+        }
+
+        public ResponseEntity<Object> toResponse() {
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(body);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.exception.TooManyStreamsException;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class StreamProxy {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final CloseableHttpClient httpClient;
+    private final WebClient webClient;
+    private final AsyncTaskExecutor executor;
+    private final long timeoutMs;
+    private final int maxTotal;
+    private final int maxPerUser;
+    private final AtomicInteger active = new AtomicInteger();
+    private final ConcurrentMap<Integer, Integer> activeByUser = new ConcurrentHashMap<>();
+
+    @Autowired
+    public StreamProxy(@Qualifier("shareitServerStreamHttpClient") CloseableHttpClient httpClient,
+                       @Qualifier("shareitServerStreamWebClient") ObjectProvider<WebClient> webClient,
+                       MeterRegistry meterRegistry,
+                       @Value("${shareit-gateway.stream.timeout:15m}") Duration timeout,
+                       @Value("${shareit-gateway.stream.max-total:100}") int maxTotal,
+                       @Value("${shareit-gateway.stream.max-per-user:2}") int maxPerUser) {
+        this(httpClient, webClient, pumpExecutor(maxTotal), meterRegistry, timeout, maxTotal, maxPerUser);
+    }
+
+    StreamProxy(CloseableHttpClient httpClient, ObjectProvider<WebClient> webClient, AsyncTaskExecutor executor,
+                MeterRegistry meterRegistry, Duration timeout, int maxTotal, int maxPerUser) {
+        this.httpClient = httpClient;
+        this.webClient = webClient.getIfAvailable();
+        this.executor = executor;
+        this.timeoutMs = timeout.toMillis();
+        this.maxTotal = maxTotal;
+        this.maxPerUser = maxPerUser;
+        meterRegistry.gauge("shareit-gateway.streams.active", active);
+    }
+
+    public Mono<ResponseEntity<ResponseBodyEmitter>> get(URI uri, int userId, HttpHeaders headers) {
+        if (!tryAcquire(userId)) {
+            return Mono.error(new TooManyStreamsException("Превышено число одновременно открытых потоков"));
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                release(userId);
+            }
+        };
+        Mono<ResponseEntity<ResponseBodyEmitter>> response = webClient != null
+                ? exchange(uri, headers, release)
+                : Mono.fromCallable(() -> execute(uri, headers, release));
+        return response
+                .doOnError(e -> release.run())
+                .doOnCancel(release);
+    }
+
+    private ResponseEntity<ResponseBodyEmitter> execute(URI uri, HttpHeaders headers, Runnable release)
+            throws IOException {
+        HttpGet request = new HttpGet(uri);
+        headers.forEach((name, values) -> values.forEach(value -> request.addHeader(name, value)));
+        CloseableHttpResponse response = httpClient.execute(request);
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMs);
+        emitter.onTimeout(request::abort);
+        emitter.onError(e -> request.abort());
+        try {
+            executor.execute(() -> pump(response, emitter, release));
+        } catch (RejectedExecutionException e) {
+            release.run();
+            response.close();
+            throw new TooManyStreamsException("Превышено число одновременно открытых потоков");
+        }
+        HttpHeaders responseHeaders = new HttpHeaders();
+        if (response.getEntity() != null && response.getEntity().getContentType() != null) {
+            responseHeaders.setContentType(MediaType.parseMediaType(response.getEntity().getContentType().getValue()));
+        }
+        return ResponseEntity.status(response.getStatusLine().getStatusCode())
+                .headers(responseHeaders)
+                .body(emitter);
+    }
+
+    private static void pump(CloseableHttpResponse response, ResponseBodyEmitter emitter, Runnable release) {
+        try (response) {
+            HttpEntity entity = response.getEntity();
+            if (entity != null) {
+                InputStream in = entity.getContent();
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    emitter.send(Arrays.copyOf(buffer, read));
+                }
+            }
+            emitter.complete();
+        } catch (IOException | RuntimeException e) {
+            emitter.completeWithError(e);
+        } finally {
+            release.run();
+        }
+    }
+
+    private Mono<ResponseEntity<ResponseBodyEmitter>> exchange(URI uri, HttpHeaders headers, Runnable release) {
+        return webClient.get()
+                .uri(uri)
+                .headers(requestHeaders -> requestHeaders.addAll(headers))
+                .retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(entity -> {
+                    ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMs);
+                    Disposable subscription = entity.getBody()
+                            .publishOn(Schedulers.boundedElastic())
+                            .doOnNext(buffer -> send(emitter, buffer))
+                            .doFinally(signal -> release.run())
+                            .subscribe(null, emitter::completeWithError, emitter::complete);
+                    emitter.onTimeout(subscription::dispose);
+                    HttpHeaders responseHeaders = new HttpHeaders();
+                    if (entity.getHeaders().getContentType() != null) {
+                        responseHeaders.setContentType(entity.getHeaders().getContentType());
+                    }
+                    return ResponseEntity.status(entity.getStatusCode())
+                            .headers(responseHeaders)
+                            .body(emitter);
+                });
+    }
+
+    private static void send(ResponseBodyEmitter emitter, DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            emitter.send(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ThreadPoolTaskExecutor) {
+            ((ThreadPoolTaskExecutor) executor).shutdown();
+        }
+    }
+
+    // One thread per blocking stream, a full pool rejects the stream instead of queueing it
+    private static ThreadPoolTaskExecutor pumpExecutor(int maxTotal) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxTotal);
+        executor.setMaxPoolSize(maxTotal);
+        executor.setQueueCapacity(0);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("stream-pump-");
+        executor.initialize();
+        return executor;
+    }
+
+    private boolean tryAcquire(int userId) {
+        if (active.incrementAndGet() > maxTotal) {
+            active.decrementAndGet();
+            return false;
+        }
+        if (activeByUser.merge(userId, 1, Integer::sum) > maxPerUser) {
+            release(userId);
+            return false;
+        }
+        return true;
+    }
+
+    private void release(int userId) {
+        activeByUser.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+        active.decrementAndGet();
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit-gateway.proxy-mode", havingValue = "reactive")
+public class WebClientConfig implements WebMvcConfigurer {
+    private final Duration requestTimeout;
+
+    public WebClientConfig(@Value("${shareit-gateway.reactive.request-timeout:60s}") Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(requestTimeout.toMillis());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareitServerConnectionProvider(
+            @Value("${shareit-gateway.http.max-total:200}") int maxTotal,
+            @Value("${shareit-gateway.http.pending-acquire-max-count:-1}") int pendingAcquireMaxCount,
+            @Value("${shareit-gateway.http.connection-request-timeout:5s}") Duration connectionRequestTimeout,
+            @Value("${shareit-gateway.http.idle-timeout:30s}") Duration idleTimeout,
+            @Value("${shareit-gateway.http.time-to-live:5m}") Duration timeToLive) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxTotal)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(connectionRequestTimeout)
+                .maxIdleTime(idleTimeout)
+                .maxLifeTime(timeToLive)
+                .evictInBackground(idleTimeout)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareitServerStreamConnectionProvider(
+            @Value("${shareit-gateway.stream.max-total:100}") int maxTotal) {
+        return ConnectionProvider.builder("shareit-server-stream")
+                .maxConnections(maxTotal)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public WebClient shareitServerWebClient(
+            ConnectionProvider shareitServerConnectionProvider,
+            @Value("${shareit-gateway.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-gateway.http.read-timeout:30s}") Duration readTimeout,
+            @Value("${shareit-gateway.http.compression:true}") boolean compression) {
+        HttpClient httpClient = HttpClient.create(shareitServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout)
+                .compress(compression);
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @Bean
+    public WebClient shareitServerStreamWebClient(
+            ConnectionProvider shareitServerStreamConnectionProvider,
+            @Value("${shareit-gateway.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-gateway.http.read-timeout:30s}") Duration readTimeout) {
+        HttpClient httpClient = HttpClient.create(shareitServerStreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
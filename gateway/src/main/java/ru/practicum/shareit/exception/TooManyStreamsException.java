@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class TooManyStreamsException extends RuntimeException {
+    public TooManyStreamsException(String message) {
+        super(message);
+    }
+}
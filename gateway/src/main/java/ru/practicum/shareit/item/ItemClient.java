@@ -1,37 +1,58 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.function.Predicate;
+
+import static ru.practicum.shareit.client.ResponseCache.exact;
+import static ru.practicum.shareit.client.ResponseCache.resource;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final Predicate<String> ITEM_LISTS = exact(API_PREFIX)
+            .or(resource(API_PREFIX + "/search"))
+            .or(resource("/requests"));
+
+    private final ResponseCache responseCache;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, ObjectProvider<WebClient> webClient,
+                      ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient.getIfAvailable(),
+                responseCache
         );
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> getById(int userId, int itemId) {
+    public Mono<ResponseEntity<Object>> getById(int userId, int itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAllByOwnerId(int userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllByOwnerId(int userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -39,7 +60,7 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllBySearchText(Integer userId, String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllBySearchText(Integer userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -48,19 +69,53 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> create(int userId, ItemDto requestDto) {
-        return post("", userId, requestDto);
+    public Mono<ResponseEntity<Object>> getAllFreeBySearchText(Integer userId, String text, LocalDateTime start,
+                                                               LocalDateTime end, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "start", start,
+                "end", end,
+                "from", from,
+                "size", size
+        );
+        return get("/search/free?text={text}&start={start}&end={end}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(int userId, int itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> create(int userId, ItemDto requestDto) {
+        return post("", userId, requestDto)
+                .doOnNext(response -> responseCache.invalidate(response, ITEM_LISTS));
+    }
+
+    public Mono<ResponseEntity<Object>> importItems(int userId, InputStream ndjson) {
+        return postStream("/bulk", userId, MediaType.parseMediaType(ItemController.NDJSON), ndjson)
+                .doOnNext(response -> responseCache.invalidate(response, ITEM_LISTS));
+    }
+
+    public Mono<ResponseEntity<Object>> createComment(int userId, int itemId, CommentDto requestDto) {
+        return post("/" + itemId + "/comment", userId, requestDto)
+                .doOnNext(response -> responseCache.invalidate(response,
+                        exact(API_PREFIX + "/" + itemId).or(exact(API_PREFIX))));
     }
 
-    public ResponseEntity<Object> createComment(int userId, int itemId, CommentDto requestDto) {
-        return post("/" + itemId + "/comment", userId, requestDto);
+    public Mono<ResponseEntity<Object>> update(int userId, int itemId, ItemDto itemDto) {
+        return patch("/" + itemId, userId, null, itemDto)
+                .doOnNext(response -> responseCache.invalidate(response, item(itemId)));
     }
 
-    public ResponseEntity<Object> update(int userId, int itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, null, itemDto);
+    public Mono<ResponseEntity<Object>> delete(int itemId) {
+        return delete("/" + itemId)
+                .doOnNext(response -> responseCache.invalidate(response, item(itemId)));
     }
 
-    public void delete(int itemId) {
-        delete("/" + itemId);
+    private static Predicate<String> item(int itemId) {
+        return resource(API_PREFIX + "/" + itemId).or(ITEM_LISTS);
     }
 }
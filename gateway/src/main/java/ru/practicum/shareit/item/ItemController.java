@@ -1,64 +1,123 @@
 package ru.practicum.shareit.item;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exception.InvalidDataException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.function.Function;
 
-@RestController
 @RequestMapping("/items")
-@RequiredArgsConstructor
-public class ItemController {
+public abstract class ItemController<R> {
+    public static final String NDJSON = "application/x-ndjson";
+
     private final ItemClient itemClient;
+    private final Function<Mono<ResponseEntity<Object>>, R> respond;
+
+    protected ItemController(ItemClient itemClient, Function<Mono<ResponseEntity<Object>>, R> respond) {
+        this.itemClient = itemClient;
+        this.respond = respond;
+    }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") int userId,
-                                          @PathVariable int itemId) {
-        return itemClient.getById(userId, itemId);
+    public R getById(@RequestHeader("X-Sharer-User-Id") int userId,
+                     @PathVariable int itemId) {
+        return respond.apply(itemClient.getById(userId, itemId));
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllByOwnerId(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                  @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                  @RequestParam(defaultValue = "20") @Positive int size) {
-        return itemClient.getAllByOwnerId(userId, from, size);
+    public R getAllByOwnerId(@RequestHeader("X-Sharer-User-Id") int userId,
+                             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                             @RequestParam(defaultValue = "20") @Positive int size) {
+        return respond.apply(itemClient.getAllByOwnerId(userId, from, size));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getAllBySearchText(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                     @RequestParam(name = "text") String text,
-                                                     @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                     @RequestParam(defaultValue = "20") @Positive int size) {
-        return itemClient.getAllBySearchText(userId, text, from, size);
+    public R getAllBySearchText(@RequestHeader("X-Sharer-User-Id") int userId,
+                                @RequestParam(name = "text") String text,
+                                @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                @RequestParam(defaultValue = "20") @Positive int size) {
+        return respond.apply(itemClient.getAllBySearchText(userId, text, from, size));
+    }
+
+    @GetMapping("/search/free")
+    public R getAllFreeBySearchText(@RequestHeader("X-Sharer-User-Id") int userId,
+                                    @RequestParam(name = "text") String text,
+                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                    @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                    @RequestParam(defaultValue = "20") @Positive int size) {
+        if (!end.isAfter(start)) {
+            throw new InvalidDataException("Конец периода должен быть после его начала");
+        }
+        return respond.apply(itemClient.getAllFreeBySearchText(userId, text, start, end, from, size));
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public R getAvailability(@RequestHeader("X-Sharer-User-Id") int userId,
+                             @PathVariable int itemId,
+                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            throw new InvalidDataException("Конец периода должен быть после его начала");
+        }
+        return respond.apply(itemClient.getAvailability(userId, itemId, from, to));
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") int userId,
-                                         @Valid @RequestBody ItemDto itemDto) {
-        return itemClient.create(userId, itemDto);
+    public R create(@RequestHeader("X-Sharer-User-Id") int userId,
+                    @Valid @RequestBody ItemDto itemDto) {
+        return respond.apply(itemClient.create(userId, itemDto));
+    }
+
+    @PostMapping(value = "/bulk", consumes = ItemController.NDJSON)
+    public R importItems(@RequestHeader("X-Sharer-User-Id") int userId,
+                         HttpServletRequest request) throws IOException {
+        return respond.apply(itemClient.importItems(userId, request.getInputStream()));
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                @PathVariable int itemId,
-                                                @Valid @RequestBody CommentDto commentDto) {
-        return itemClient.createComment(userId, itemId, commentDto);
+    public R createComment(@RequestHeader("X-Sharer-User-Id") int userId,
+                           @PathVariable int itemId,
+                           @Valid @RequestBody CommentDto commentDto) {
+        return respond.apply(itemClient.createComment(userId, itemId, commentDto));
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@RequestHeader("X-Sharer-User-Id") int userId,
-                                         @PathVariable int itemId,
-                                         @RequestBody ItemDto itemDto) {
-        return itemClient.update(userId, itemId, itemDto);
+    public R update(@RequestHeader("X-Sharer-User-Id") int userId,
+                    @PathVariable int itemId,
+                    @RequestBody ItemDto itemDto) {
+        return respond.apply(itemClient.update(userId, itemId, itemDto));
     }
 
     @DeleteMapping("/{itemId}")
-    public void delete(@PathVariable int itemId) {
-        itemClient.delete(itemId);
+    public R delete(@PathVariable int itemId) {
+        return respond.apply(itemClient.delete(itemId));
+    }
+
+    @RestController
+    @ConditionalOnProperty(name = "shareit-gateway.proxy-mode", havingValue = "blocking", matchIfMissing = true)
+    public static class Blocking extends ItemController<ResponseEntity<Object>> {
+        public Blocking(ItemClient itemClient) {
+            super(itemClient, Mono::block);
+        }
+    }
+
+    @RestController
+    @ConditionalOnProperty(name = "shareit-gateway.proxy-mode", havingValue = "reactive")
+    public static class Reactive extends ItemController<Mono<ResponseEntity<Object>>> {
+        public Reactive(ItemClient itemClient) {
+            super(itemClient, Function.identity());
+        }
     }
 }
@@ -1,32 +1,49 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.StreamProxy;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 
 import java.util.Map;
 
+import static ru.practicum.shareit.client.ResponseCache.resource;
+
 @Service
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
+    private final ResponseCache responseCache;
+
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory requestFactory, ObjectProvider<WebClient> webClient,
+                             ResponseCache responseCache, StreamProxy streamProxy) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient.getIfAvailable(),
+                responseCache,
+                streamProxy
         );
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> getAllByOwnerId(int userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAllByOwnerId(int userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -34,7 +51,7 @@ public class ItemRequestClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAll(int userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getAll(int userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -42,11 +59,16 @@ public class ItemRequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getById(int userId, int itemRequestId) {
+    public Mono<ResponseEntity<Object>> getById(int userId, int itemRequestId) {
         return get("/" + itemRequestId, userId);
     }
 
-    public ResponseEntity<Object> create(int userId, ItemRequestCreateDto requestDto) {
-        return post("", userId, requestDto);
+    public Mono<ResponseEntity<ResponseBodyEmitter>> subscribe(int userId) {
+        return getStream("/subscribe", userId, MediaType.TEXT_EVENT_STREAM, null);
+    }
+
+    public Mono<ResponseEntity<Object>> create(int userId, ItemRequestCreateDto requestDto) {
+        return post("", userId, requestDto)
+                .doOnNext(response -> responseCache.invalidate(response, resource(API_PREFIX)));
     }
 }
\ No newline at end of file
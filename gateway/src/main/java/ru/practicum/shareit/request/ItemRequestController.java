@@ -1,45 +1,76 @@
 package ru.practicum.shareit.request;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.function.Function;
 
 @Validated
-@RestController
 @RequestMapping(path = "/requests")
-@RequiredArgsConstructor
-public class ItemRequestController {
+public abstract class ItemRequestController<R> {
     private final ItemRequestClient itemRequestClient;
+    private final Function<Mono<ResponseEntity<Object>>, R> respond;
+
+    protected ItemRequestController(ItemRequestClient itemRequestClient,
+                                    Function<Mono<ResponseEntity<Object>>, R> respond) {
+        this.itemRequestClient = itemRequestClient;
+        this.respond = respond;
+    }
 
     @GetMapping
-    public ResponseEntity<Object> getAllByOwnerId(@RequestHeader("X-Sharer-User-Id") int userId,
-                                                  @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                  @RequestParam(defaultValue = "20") @Positive int size) {
-        return itemRequestClient.getAllByOwnerId(userId, from, size);
+    public R getAllByOwnerId(@RequestHeader("X-Sharer-User-Id") int userId,
+                             @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                             @RequestParam(defaultValue = "20") @Positive int size) {
+        return respond.apply(itemRequestClient.getAllByOwnerId(userId, from, size));
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAll(@RequestHeader("X-Sharer-User-Id") int userId,
-                                         @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                         @RequestParam(defaultValue = "20") @Positive int size) {
-        return itemRequestClient.getAll(userId, from, size);
+    public R getAll(@RequestHeader("X-Sharer-User-Id") int userId,
+                    @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                    @RequestParam(defaultValue = "20") @Positive int size) {
+        return respond.apply(itemRequestClient.getAll(userId, from, size));
     }
 
     @GetMapping("/{itemRequestId}")
-    public ResponseEntity<Object> getById(@RequestHeader("X-Sharer-User-Id") int userId,
-                                          @PathVariable int itemRequestId) {
-        return itemRequestClient.getById(userId, itemRequestId);
+    public R getById(@RequestHeader("X-Sharer-User-Id") int userId,
+                     @PathVariable int itemRequestId) {
+        return respond.apply(itemRequestClient.getById(userId, itemRequestId));
+    }
+
+    // Server-sent events keep the Mono signature in both modes
+    @GetMapping(value = "/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Mono<ResponseEntity<ResponseBodyEmitter>> subscribe(@RequestHeader("X-Sharer-User-Id") int userId) {
+        return itemRequestClient.subscribe(userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader("X-Sharer-User-Id") int userId,
-                                         @Valid @RequestBody ItemRequestCreateDto itemRequestCreateDto) {
-        return itemRequestClient.create(userId, itemRequestCreateDto);
+    public R create(@RequestHeader("X-Sharer-User-Id") int userId,
+                    @Valid @RequestBody ItemRequestCreateDto itemRequestCreateDto) {
+        return respond.apply(itemRequestClient.create(userId, itemRequestCreateDto));
+    }
+
+    @RestController
+    @ConditionalOnProperty(name = "shareit-gateway.proxy-mode", havingValue = "blocking", matchIfMissing = true)
+    public static class Blocking extends ItemRequestController<ResponseEntity<Object>> {
+        public Blocking(ItemRequestClient itemRequestClient) {
+            super(itemRequestClient, Mono::block);
+        }
+    }
+
+    @RestController
+    @ConditionalOnProperty(name = "shareit-gateway.proxy-mode", havingValue = "reactive")
+    public static class Reactive extends ItemRequestController<Mono<ResponseEntity<Object>>> {
+        public Reactive(ItemRequestClient itemRequestClient) {
+            super(itemRequestClient, Function.identity());
+        }
     }
 }
@@ -1,46 +1,63 @@
 package ru.practicum.shareit.user;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.function.Predicate;
+
+import static ru.practicum.shareit.client.ResponseCache.resource;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
+    private static final Predicate<String> USER_CONTENT = resource("/items").or(resource("/requests"));
+
+    private final ResponseCache responseCache;
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, ObjectProvider<WebClient> webClient,
+                      ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                webClient.getIfAvailable()
         );
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         return get("");
     }
 
-    public ResponseEntity<Object> getById(int userId) {
+    public Mono<ResponseEntity<Object>> getById(int userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> create(UserDto requestDto) {
+    public Mono<ResponseEntity<Object>> create(UserDto requestDto) {
         return post("", null, requestDto);
     }
 
-    public ResponseEntity<Object> update(int userId, UserDto userDto) {
-        return patch("/" + userId, userId, null, userDto);
+    public Mono<ResponseEntity<Object>> update(int userId, UserDto userDto) {
+        return patch("/" + userId, userId, null, userDto)
+                .doOnNext(response -> responseCache.invalidate(response, USER_CONTENT));
     }
 
-    public void delete(int userId) {
-        delete("/" + userId);
+    public Mono<ResponseEntity<Object>> delete(int userId) {
+        return delete("/" + userId)
+                .doOnNext(response -> responseCache.invalidate(response, USER_CONTENT));
     }
 }
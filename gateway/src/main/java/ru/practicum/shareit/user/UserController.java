@@ -1,41 +1,63 @@
 package ru.practicum.shareit.user;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
+import java.util.function.Function;
 
-@RestController
 @RequestMapping(path = "/users")
-@RequiredArgsConstructor
-public class UserController {
+public abstract class UserController<R> {
     private final UserClient userClient;
+    private final Function<Mono<ResponseEntity<Object>>, R> respond;
+
+    protected UserController(UserClient userClient, Function<Mono<ResponseEntity<Object>>, R> respond) {
+        this.userClient = userClient;
+        this.respond = respond;
+    }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
-        return userClient.getAll();
+    public R getAll() {
+        return respond.apply(userClient.getAll());
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getById(@PathVariable int userId) {
-        return userClient.getById(userId);
+    public R getById(@PathVariable int userId) {
+        return respond.apply(userClient.getById(userId));
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody UserDto userDto) {
-        return userClient.create(userDto);
+    public R create(@Valid @RequestBody UserDto userDto) {
+        return respond.apply(userClient.create(userDto));
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> update(@PathVariable int userId,
-                                         @RequestBody UserDto userDto) {
-        return userClient.update(userId, userDto);
+    public R update(@PathVariable int userId,
+                    @RequestBody UserDto userDto) {
+        return respond.apply(userClient.update(userId, userDto));
     }
 
     @DeleteMapping("/{userId}")
-    public void delete(@PathVariable int userId) {
-        userClient.delete(userId);
+    public R delete(@PathVariable int userId) {
+        return respond.apply(userClient.delete(userId));
+    }
+
+    @RestController
+    @ConditionalOnProperty(name = "shareit-gateway.proxy-mode", havingValue = "blocking", matchIfMissing = true)
+    public static class Blocking extends UserController<ResponseEntity<Object>> {
+        public Blocking(UserClient userClient) {
+            super(userClient, Mono::block);
+        }
+    }
+
+    @RestController
+    @ConditionalOnProperty(name = "shareit-gateway.proxy-mode", havingValue = "reactive")
+    public static class Reactive extends UserController<Mono<ResponseEntity<Object>>> {
+        public Reactive(UserClient userClient) {
+            super(userClient, Function.identity());
+        }
     }
 }
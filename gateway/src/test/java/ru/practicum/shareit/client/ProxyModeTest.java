@@ -0,0 +1,150 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+public abstract class ProxyModeTest {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final String NOT_FOUND_JSON = "{\"error\":\"Бронирование не найдено\"}";
+    private static final HttpServer SHAREIT_SERVER = startShareItServer();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void shareItServerProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SHAREIT_SERVER.getAddress().getPort());
+    }
+
+    @Test
+    void getTest() {
+        ResponseEntity<String> response = exchange(HttpMethod.GET, "/bookings/1", 1, null, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo("{\"id\":1,\"booker\":1}");
+        assertThat(response.getHeaders().getFirst("X-Request-Id")).isEqualTo("42");
+    }
+
+    @Test
+    void getTest_ErrorStatusPassthrough() {
+        ResponseEntity<String> response = exchange(HttpMethod.GET, "/bookings/2", 1, null, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).isEqualTo(NOT_FOUND_JSON);
+    }
+
+    @Test
+    void importItemsTest() {
+        ResponseEntity<String> response = exchange(HttpMethod.POST, "/items/bulk", 1, NDJSON,
+                "{\"name\":\"Дрель\"}\n{\"name\":\"Пила\"}\n");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(response.getBody()).isEqualTo("{\"imported\":2}");
+    }
+
+    @Test
+    void importItemsTest_ErrorStatusPassthrough() {
+        ResponseEntity<String> response = exchange(HttpMethod.POST, "/items/bulk", 1, NDJSON, "{\"name\":\n");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isEqualTo("{\"error\":\"Некорректная строка 1\"}");
+    }
+
+    @Test
+    void exportTest() {
+        ResponseEntity<String> response = exchange(HttpMethod.GET, "/bookings/export", 1, null, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(NDJSON);
+        assertThat(response.getBody()).isEqualTo("{\"id\":1}\n{\"id\":2}\n");
+    }
+
+    @Test
+    void exportTest_ErrorStatusPassthrough() {
+        ResponseEntity<String> response = exchange(HttpMethod.GET, "/bookings/export", 99, null, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody()).isEqualTo(NOT_FOUND_JSON);
+    }
+
+    private ResponseEntity<String> exchange(HttpMethod method, String path, int userId, MediaType contentType,
+                                            String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        if (contentType != null) {
+            headers.setContentType(contentType);
+        }
+        return restTemplate.exchange(path, method, new HttpEntity<>(body, headers), String.class);
+    }
+
+    private static HttpServer startShareItServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/bookings/1", exchange -> {
+                exchange.getResponseHeaders().add("X-Request-Id", "42");
+                respond(exchange, 200, "application/json", "{\"id\":1,\"booker\":"
+                        + exchange.getRequestHeaders().getFirst("X-Sharer-User-Id") + "}");
+            });
+            server.createContext("/bookings/2", exchange -> respond(exchange, 404, "application/json",
+                    NOT_FOUND_JSON));
+            server.createContext("/bookings/export", exchange -> {
+                if ("1".equals(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"))) {
+                    respond(exchange, 200, NDJSON.toString(), "{\"id\":1}\n{\"id\":2}\n");
+                } else {
+                    respond(exchange, 404, "application/json", NOT_FOUND_JSON);
+                }
+            });
+            server.createContext("/items/bulk", exchange -> {
+                List<String> lines = List.of(new String(exchange.getRequestBody().readAllBytes(),
+                        StandardCharsets.UTF_8).split("\n"));
+                if (lines.stream().allMatch(line -> line.endsWith("}"))) {
+                    respond(exchange, 201, "application/json", "{\"imported\":" + lines.size() + "}");
+                } else {
+                    respond(exchange, 400, "application/json", "{\"error\":\"Некорректная строка 1\"}");
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body)
+            throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
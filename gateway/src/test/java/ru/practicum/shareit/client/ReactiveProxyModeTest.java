@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@TestPropertySource(properties = "shareit-gateway.proxy-mode=reactive")
+public class ReactiveProxyModeTest extends ProxyModeTest {
+
+    @Test
+    void getTest_Asynchronous() throws Exception {
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/bookings/1").header("X-Sharer-User-Id", 1))
+                        .andExpect(request().asyncStarted())
+                        .andReturn()))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":1,\"booker\":1}"));
+    }
+}
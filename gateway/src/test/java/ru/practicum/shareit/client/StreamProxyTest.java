@@ -0,0 +1,46 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import ru.practicum.shareit.exception.TooManyStreamsException;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class StreamProxyTest {
+    private static final URI EXPORT_URI = URI.create("http://shareit-server/bookings/export");
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getTest_ExecutorRejected() throws Exception {
+        CloseableHttpClient httpClient = mock(CloseableHttpClient.class);
+        CloseableHttpResponse response = mock(CloseableHttpResponse.class);
+        when(httpClient.execute(any(HttpUriRequest.class))).thenReturn(response);
+        AsyncTaskExecutor executor = mock(AsyncTaskExecutor.class);
+        doThrow(new TaskRejectedException("Пул потоков заполнен")).when(executor).execute(any(Runnable.class));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StreamProxy streamProxy = new StreamProxy(httpClient, mock(ObjectProvider.class), executor, meterRegistry,
+                Duration.ofMinutes(1), 1, 1);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> streamProxy.get(EXPORT_URI, 1, new HttpHeaders()).block())
+                    .isInstanceOf(TooManyStreamsException.class);
+        }
+
+        verify(httpClient, times(2)).execute(any(HttpUriRequest.class));
+        verify(response, times(2)).close();
+        assertThat(meterRegistry.get("shareit-gateway.streams.active").gauge().value()).isZero();
+    }
+}
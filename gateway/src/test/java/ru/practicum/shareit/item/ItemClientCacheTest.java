@@ -0,0 +1,232 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.web.client.MockRestServiceServer;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.StreamProxy;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class ItemClientCacheTest {
+    private static final String SERVER_URL = "http://shareit-server";
+    private static final String ITEM_JSON = "{\"id\":1,\"name\":\"Дрель\"}";
+    private static final String ETAG = "\"0a1b2c\"";
+
+    private MockServerRestTemplateCustomizer customizer;
+    private ResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        customizer = new MockServerRestTemplateCustomizer();
+    }
+
+    @Test
+    void getByIdTest_RevalidateWithETag() {
+        ItemClient itemClient = getItemClient(Duration.ZERO);
+        MockRestServiceServer server = customizer.getServer();
+        server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON).headers(getHeaders(ETAG)));
+        server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(getHeaders(ETAG)));
+
+        ResponseEntity<Object> first = itemClient.getById(1, 1).block();
+        ResponseEntity<Object> second = itemClient.getById(1, 1).block();
+
+        server.verify();
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getBody()).isEqualTo(first.getBody()).isEqualTo(Map.of("id", 1, "name", "Дрель"));
+        assertThat(second.getHeaders().getETag()).isEqualTo(ETAG);
+        assertThat(second.getHeaders().getCacheControl()).isEqualTo("no-cache");
+        assertThat(second.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(second.getHeaders().getFirst("X-Request-Id")).isEqualTo("42");
+        assertThat(second.getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH)).isFalse();
+    }
+
+    @Test
+    void getByIdTest_FreshWithoutRevalidation() {
+        ItemClient itemClient = getItemClient(Duration.ofMinutes(1));
+        MockRestServiceServer server = customizer.getServer();
+        server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON).headers(getHeaders(ETAG)));
+
+        itemClient.getById(1, 1).block();
+        ResponseEntity<Object> second = itemClient.getById(1, 1).block();
+
+        server.verify();
+        assertThat(second.getBody()).isEqualTo(Map.of("id", 1, "name", "Дрель"));
+        assertThat(second.getHeaders().getFirst("X-Request-Id")).isEqualTo("42");
+    }
+
+    @Test
+    void getByIdTest_KeyedByUser() {
+        ItemClient itemClient = getItemClient(Duration.ofMinutes(1));
+        MockRestServiceServer server = customizer.getServer();
+        server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON).headers(getHeaders(ETAG)));
+        server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andExpect(header("X-Sharer-User-Id", "2"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON).headers(getHeaders("\"3d4e\"")));
+
+        itemClient.getById(1, 1).block();
+        ResponseEntity<Object> other = itemClient.getById(2, 1).block();
+        ResponseEntity<Object> own = itemClient.getById(1, 1).block();
+
+        server.verify();
+        assertThat(other.getBody()).isEqualTo(Map.of("id", 1));
+        assertThat(own.getBody()).isEqualTo(Map.of("id", 1, "name", "Дрель"));
+    }
+
+    @Test
+    void getByIdTest_ErrorNotCached() {
+        ItemClient itemClient = getItemClient(Duration.ofMinutes(1));
+        MockRestServiceServer server = customizer.getServer();
+        server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND).headers(getHeaders(ETAG)));
+        server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON));
+
+        assertThat(itemClient.getById(1, 1).block().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(itemClient.getById(1, 1).block().getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        server.verify();
+    }
+
+    @Test
+    void getByIdTest_InvalidatedByWrite() {
+        ItemClient itemClient = getItemClient(Duration.ofMinutes(1));
+        MockRestServiceServer server = customizer.getServer();
+        server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON).headers(getHeaders(ETAG)));
+        server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andExpect(method(HttpMethod.PATCH))
+                .andRespond(withSuccess("{\"id\":1,\"name\":\"Перфоратор\"}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess("{\"id\":1,\"name\":\"Перфоратор\"}", MediaType.APPLICATION_JSON)
+                        .headers(getHeaders("\"5f6a\"")));
+
+        itemClient.getById(1, 1).block();
+        itemClient.update(1, 1, ItemDto.builder().name("Перфоратор").build()).block();
+        ResponseEntity<Object> response = itemClient.getById(1, 1).block();
+
+        server.verify();
+        assertThat(response.getBody()).isEqualTo(Map.of("id", 1, "name", "Перфоратор"));
+    }
+
+    @Test
+    void getByIdTest_OtherItemKeptAfterWrite() {
+        ItemClient itemClient = getItemClient(Duration.ofMinutes(1));
+        MockRestServiceServer server = customizer.getServer();
+        server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON).headers(getHeaders(ETAG)));
+        server.expect(requestTo(SERVER_URL + "/items/2"))
+                .andExpect(method(HttpMethod.PATCH))
+                .andRespond(withSuccess("{\"id\":2}", MediaType.APPLICATION_JSON));
+
+        itemClient.getById(2, 1).block();
+        itemClient.update(1, 2, ItemDto.builder().name("Перфоратор").build()).block();
+        ResponseEntity<Object> response = itemClient.getById(2, 1).block();
+
+        server.verify();
+        assertThat(response.getBody()).isEqualTo(Map.of("id", 1, "name", "Дрель"));
+    }
+
+    @Test
+    void getByIdTest_InvalidatedByBookingApproval() {
+        ItemClient itemClient = getItemClient(Duration.ofMinutes(1));
+        MockServerRestTemplateCustomizer bookingCustomizer = new MockServerRestTemplateCustomizer();
+        BookingClient bookingClient = getBookingClient(bookingCustomizer);
+        MockRestServiceServer server = customizer.getServer();
+        server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON).headers(getHeaders(ETAG)));
+        server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess("{\"id\":1,\"nextBooking\":{\"id\":7}}", MediaType.APPLICATION_JSON)
+                        .headers(getHeaders("\"5f6a\"")));
+        MockRestServiceServer bookingServer = bookingCustomizer.getServer();
+        bookingServer.expect(requestTo(SERVER_URL + "/bookings/7?approved=true"))
+                .andExpect(method(HttpMethod.PATCH))
+                .andRespond(withSuccess("{\"id\":7,\"status\":\"APPROVED\",\"item\":{\"id\":1}}",
+                        MediaType.APPLICATION_JSON));
+
+        itemClient.getById(2, 1).block();
+        bookingClient.approve(1, 7, true).block();
+        ResponseEntity<Object> response = itemClient.getById(2, 1).block();
+
+        server.verify();
+        bookingServer.verify();
+        assertThat(response.getBody()).isEqualTo(Map.of("id", 1, "nextBooking", Map.of("id", 7)));
+    }
+
+    @Test
+    void getByIdTest_KeptAfterRejectedWrite() {
+        ItemClient itemClient = getItemClient(Duration.ofMinutes(1));
+        MockRestServiceServer server = customizer.getServer();
+        server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andRespond(withSuccess(ITEM_JSON, MediaType.APPLICATION_JSON).headers(getHeaders(ETAG)));
+        server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andExpect(method(HttpMethod.PATCH))
+                .andRespond(withStatus(HttpStatus.FORBIDDEN));
+
+        itemClient.getById(2, 1).block();
+        itemClient.update(2, 1, ItemDto.builder().name("Перфоратор").build()).block();
+        ResponseEntity<Object> response = itemClient.getById(2, 1).block();
+
+        server.verify();
+        assertThat(response.getBody()).isEqualTo(Map.of("id", 1, "name", "Дрель"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ItemClient getItemClient(Duration freshFor) {
+        responseCache = new ResponseCache(new SimpleMeterRegistry(), SERVER_URL, true, 100,
+                Duration.ofMinutes(10), freshFor);
+        return new ItemClient(SERVER_URL, new RestTemplateBuilder(customizer), new SimpleClientHttpRequestFactory(),
+                mock(ObjectProvider.class), responseCache);
+    }
+
+    @SuppressWarnings("unchecked")
+    private BookingClient getBookingClient(MockServerRestTemplateCustomizer bookingCustomizer) {
+        return new BookingClient(SERVER_URL, new RestTemplateBuilder(bookingCustomizer),
+                new SimpleClientHttpRequestFactory(), mock(ObjectProvider.class), responseCache,
+                mock(StreamProxy.class));
+    }
+
+    private HttpHeaders getHeaders(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.setCacheControl("no-cache");
+        headers.setContentLength(ITEM_JSON.length());
+        headers.set("X-Request-Id", "42");
+        return headers;
+    }
+}
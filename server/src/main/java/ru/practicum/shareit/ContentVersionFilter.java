@@ -0,0 +1,73 @@
+package ru.practicum.shareit;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class ContentVersionFilter extends OncePerRequestFilter {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final Pattern VERSIONED_PATH = Pattern.compile("/requests(/all|/\\d+)?|/items/search(/free)?");
+    private static final Pattern ITEM_PATH = Pattern.compile("/items/(\\d+)");
+
+    private final ItemRepository itemRepository;
+    // Seeded with the start time so that ETags issued before a restart never match again.
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public ContentVersionFilter(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            // Bumped before the write so cached copies stop matching right away, and again after it
+            // so nothing read while the write was in flight is validated later.
+            version.incrementAndGet();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                version.incrementAndGet();
+            }
+            return;
+        }
+        if (isVersioned(request)) {
+            String etag = "\"" + version.get() + "-" + request.getHeader(USER_HEADER) + "\"";
+            if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+                return;
+            }
+            ShallowEtagHeaderFilter.disableContentCaching(request);
+        }
+        chain.doFilter(request, response);
+    }
+
+    // Owner views of an item, the owner's item list and availability depend on the current time,
+    // so they keep the body-hashing ETag.
+    private boolean isVersioned(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (VERSIONED_PATH.matcher(path).matches()) {
+            return true;
+        }
+        Matcher item = ITEM_PATH.matcher(path);
+        String userId = request.getHeader(USER_HEADER);
+        if (!item.matches() || userId == null) {
+            return false;
+        }
+        try {
+            return !itemRepository.existsByIdAndOwnerId(Integer.valueOf(item.group(1)), Integer.valueOf(userId));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -1,19 +1,32 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.RequestBookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String NDJSON = "application/x-ndjson";
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/{bookingId}")
     public BookingResponseDto getById(@PathVariable int bookingId,
@@ -22,19 +35,44 @@ public class BookingController {
     }
 
     @GetMapping()
-    public List<BookingResponseDto> getAllByState(@RequestParam(defaultValue = "ALL") RequestBookingStatus state,
-                                                  @RequestParam(defaultValue = "0") int from,
-                                                  @RequestParam(defaultValue = "20") int size,
-                                                  @RequestHeader("X-Sharer-User-Id") int userId) {
-        return bookingService.getAllByState(state, userId, from, size);
+    public ResponseEntity<List<BookingResponseDto>> getAllByState(@RequestParam(defaultValue = "ALL") RequestBookingStatus state,
+                                                                  @RequestParam(defaultValue = "0") int from,
+                                                                  @RequestParam(defaultValue = "20") int size,
+                                                                  @RequestParam(required = false) String after,
+                                                                  @RequestHeader("X-Sharer-User-Id") int userId) {
+        List<BookingResponseDto> bookings = (after == null)
+                ? bookingService.getAllByState(state, userId, from, size)
+                : bookingService.getAllByStateAfter(state, userId, BookingCursor.decode(after), size);
+        return toPage(bookings, size);
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getAllByStateForOwner(@RequestParam(defaultValue = "ALL") RequestBookingStatus state,
-                                                          @RequestParam(defaultValue = "0") int from,
-                                                          @RequestParam(defaultValue = "20") int size,
-                                                          @RequestHeader("X-Sharer-User-Id") int userId) {
-        return bookingService.getAllByStateForOwner(state, userId, from, size);
+    public ResponseEntity<List<BookingResponseDto>> getAllByStateForOwner(@RequestParam(defaultValue = "ALL") RequestBookingStatus state,
+                                                                          @RequestParam(defaultValue = "0") int from,
+                                                                          @RequestParam(defaultValue = "20") int size,
+                                                                          @RequestParam(required = false) String after,
+                                                                          @RequestHeader("X-Sharer-User-Id") int userId) {
+        List<BookingResponseDto> bookings = (after == null)
+                ? bookingService.getAllByStateForOwner(state, userId, from, size)
+                : bookingService.getAllByStateForOwnerAfter(state, userId, BookingCursor.decode(after), size);
+        return toPage(bookings, size);
+    }
+
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "false") boolean owner,
+                                                        @RequestHeader("X-Sharer-User-Id") int userId) {
+        bookingService.checkExport(userId);
+        StreamingResponseBody body = out -> bookingService.export(userId, owner, booking -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(booking));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
     }
 
     @PostMapping
@@ -49,4 +87,18 @@ public class BookingController {
                                       @RequestHeader("X-Sharer-User-Id") int userId) {
         return bookingService.approve(bookingId, approved, userId);
     }
+
+    @PatchMapping("/approve-batch")
+    public List<BookingDecisionResultDto> approveBatch(@RequestBody List<BookingDecisionDto> decisions,
+                                                       @RequestHeader("X-Sharer-User-Id") int userId) {
+        return bookingService.approveBatch(decisions, userId);
+    }
+
+    private ResponseEntity<List<BookingResponseDto>> toPage(List<BookingResponseDto> bookings, int size) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok();
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            responseBuilder.header(NEXT_CURSOR_HEADER, BookingCursor.of(bookings.get(bookings.size() - 1)).encode());
+        }
+        return responseBuilder.body(bookings);
+    }
 }
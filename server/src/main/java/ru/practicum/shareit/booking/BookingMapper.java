@@ -3,7 +3,13 @@ package ru.practicum.shareit.booking;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventType;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingOutboxEntry;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @UtilityClass
 public class BookingMapper {
@@ -29,4 +35,31 @@ public class BookingMapper {
         booking.setEnd(bookingRequestDto.getEnd());
         return booking;
     }
-}
\ No newline at end of file
+
+    public static BookingOutboxEntry toOutboxEntry(BookingEventType type, Booking booking) {
+        return BookingOutboxEntry.builder()
+                .type(type)
+                .bookingId(booking.getId())
+                .itemId(booking.getItem().getId())
+                .bookerId(booking.getUser().getId())
+                .status(booking.getStatus())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .created(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))
+                .build();
+    }
+
+    public static BookingEvent toEvent(BookingOutboxEntry entry) {
+        return BookingEvent.builder()
+                .eventId(entry.getId())
+                .type(entry.getType())
+                .bookingId(entry.getBookingId())
+                .itemId(entry.getItemId())
+                .bookerId(entry.getBookerId())
+                .status(entry.getStatus())
+                .start(entry.getStart())
+                .end(entry.getEnd())
+                .created(entry.getCreated())
+                .build();
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface ItemBookingView {
+    Integer getId();
+
+    Integer getItemId();
+
+    Integer getBookerId();
+}
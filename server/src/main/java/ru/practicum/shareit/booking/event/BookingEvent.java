@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Builder;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class BookingEvent {
+    private long eventId;
+    private BookingEventType type;
+    private int bookingId;
+    private int itemId;
+    private int bookerId;
+    private BookingStatus status;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private LocalDateTime created;
+}
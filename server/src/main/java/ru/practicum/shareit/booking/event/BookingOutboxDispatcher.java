@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.model.BookingOutboxEntry;
+import ru.practicum.shareit.booking.repository.BookingOutboxRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class BookingOutboxDispatcher {
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final BookingOutboxRepository bookingOutboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final Duration pollInterval;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Counter dispatched;
+    private final Counter failed;
+    private final Counter deadLettered;
+    private final ScheduledExecutorService poller;
+
+    public BookingOutboxDispatcher(BookingOutboxRepository bookingOutboxRepository,
+                                   ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+                                   @Value("${shareit.booking.outbox.enabled:true}") boolean enabled,
+                                   @Value("${shareit.booking.outbox.poll-interval:200ms}") Duration pollInterval,
+                                   @Value("${shareit.booking.outbox.batch-size:500}") int batchSize,
+                                   @Value("${shareit.booking.outbox.max-attempts:10}") int maxAttempts) {
+        this.bookingOutboxRepository = bookingOutboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.pollInterval = pollInterval;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.dispatched = meterRegistry.counter("shareit.booking.outbox.dispatched");
+        this.failed = meterRegistry.counter("shareit.booking.outbox.failed");
+        this.deadLettered = meterRegistry.counter("shareit.booking.outbox.dead-lettered");
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("booking-outbox-");
+        threadFactory.setDaemon(true);
+        this.poller = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        poller.scheduleWithFixedDelay(this::drain, pollInterval.toMillis(), pollInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public int dispatch() {
+        Set<Integer> blockedItemIds = new HashSet<>();
+        int total = 0;
+        long lastId = 0;
+        List<BookingOutboxEntry> entries;
+        do {
+            entries = bookingOutboxRepository.findAllByIdGreaterThanAndDeadLetterFalseOrderByIdAsc(lastId,
+                    PageRequest.of(0, batchSize));
+            List<Long> delivered = new ArrayList<>(entries.size());
+            for (BookingOutboxEntry entry : entries) {
+                lastId = entry.getId();
+                if (blockedItemIds.contains(entry.getItemId())) {
+                    continue;
+                }
+                try {
+                    eventPublisher.publishEvent(BookingMapper.toEvent(entry));
+                    delivered.add(entry.getId());
+                } catch (RuntimeException e) {
+                    failed.increment();
+                    recordFailure(entry, e, blockedItemIds);
+                }
+            }
+            if (!delivered.isEmpty()) {
+                bookingOutboxRepository.deleteAllByIdInBatch(delivered);
+                dispatched.increment(delivered.size());
+                total += delivered.size();
+            }
+        } while (entries.size() == batchSize && total < batchSize);
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    private void recordFailure(BookingOutboxEntry entry, RuntimeException e, Set<Integer> blockedItemIds) {
+        int attempts = entry.getAttempts() + 1;
+        boolean deadLetter = attempts >= maxAttempts;
+        String error = String.valueOf(e);
+        bookingOutboxRepository.recordFailure(entry.getId(), attempts, deadLetter,
+                error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        if (deadLetter) {
+            // Parked events no longer hold back later events for the same item
+            deadLettered.increment();
+            log.error("Booking event {} for item {} failed {} times, moved to dead letter", entry.getId(),
+                    entry.getItemId(), attempts, e);
+        } else {
+            blockedItemIds.add(entry.getItemId());
+            log.warn("Failed to dispatch booking event {} for item {} (attempt {} of {}), will retry",
+                    entry.getId(), entry.getItemId(), attempts, maxAttempts, e);
+        }
+    }
+
+    private void drain() {
+        try {
+            int delivered;
+            do {
+                delivered = dispatch();
+            } while (delivered >= batchSize);
+        } catch (RuntimeException e) {
+            log.error("Booking outbox dispatch failed", e);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingLifecycle;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class BookingLifecycleScheduler {
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+    private final Duration tick;
+    private final Duration horizon;
+    private final TimingWheel<Transition> wheel;
+    private final List<Transition> overdue = new ArrayList<>();
+    private final ScheduledExecutorService executor;
+    private LocalDateTime scheduledUntil;
+
+    public BookingLifecycleScheduler(BookingRepository bookingRepository,
+                                     @Value("${shareit.booking.lifecycle.enabled:false}") boolean enabled,
+                                     @Value("${shareit.booking.lifecycle.tick:1s}") Duration tick,
+                                     @Value("${shareit.booking.lifecycle.wheel-size:60}") int wheelSize,
+                                     @Value("${shareit.booking.lifecycle.horizon:1h}") Duration horizon) {
+        this.bookingRepository = bookingRepository;
+        this.enabled = enabled;
+        this.tick = tick;
+        this.horizon = horizon;
+        this.wheel = new TimingWheel<>(tick.toMillis(), wheelSize, System.currentTimeMillis());
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("booking-lifecycle-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        long refreshMs = horizon.toMillis() / 2;
+        executor.scheduleWithFixedDelay(this::advanceSafely, 0, tick.toMillis(), TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::refreshSafely, 0, refreshMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void schedule(Booking booking) {
+        if (!enabled) {
+            return;
+        }
+        Transition started = new Transition(booking.getId(), booking.getStart(), BookingLifecycle.STARTED);
+        Transition finished = new Transition(booking.getId(), booking.getEnd(), BookingLifecycle.FINISHED);
+        afterCommit(() -> {
+            scheduleIfLoaded(started);
+            scheduleIfLoaded(finished);
+        });
+    }
+
+    public void refresh() {
+        LocalDateTime currentTime = LocalDateTime.now();
+        LocalDateTime to = currentTime.plus(horizon);
+        LocalDateTime from;
+        synchronized (this) {
+            from = scheduledUntil == null ? currentTime : scheduledUntil;
+            scheduledUntil = to;
+        }
+        int started = bookingRepository.markAllStarted(currentTime);
+        int finished = bookingRepository.markAllFinished(currentTime);
+        if (started + finished > 0) {
+            log.info("Caught up booking lifecycle: {} started, {} finished", started, finished);
+        }
+        List<BookingIntervalView> starting = bookingRepository.findStartingBetween(from, to);
+        List<BookingIntervalView> ending = bookingRepository.findEndingBetween(from, to);
+        synchronized (this) {
+            starting.forEach(booking -> add(new Transition(booking.getId(), booking.getStart(),
+                    BookingLifecycle.STARTED)));
+            ending.forEach(booking -> add(new Transition(booking.getId(), booking.getEnd(),
+                    BookingLifecycle.FINISHED)));
+        }
+        log.debug("Scheduled {} booking lifecycle transitions until {}", starting.size() + ending.size(), to);
+    }
+
+    public void advance() {
+        List<Transition> due;
+        synchronized (this) {
+            due = new ArrayList<>(overdue);
+            overdue.clear();
+            wheel.advance(System.currentTimeMillis(), due::add);
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        List<Integer> started = new ArrayList<>();
+        List<Integer> finished = new ArrayList<>();
+        for (Transition transition : due) {
+            (transition.lifecycle == BookingLifecycle.STARTED ? started : finished).add(transition.bookingId);
+        }
+        LocalDateTime currentTime = LocalDateTime.now();
+        if (!started.isEmpty()) {
+            bookingRepository.markStarted(started, currentTime);
+        }
+        if (!finished.isEmpty()) {
+            bookingRepository.markFinished(finished, currentTime);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private synchronized void scheduleIfLoaded(Transition transition) {
+        if (scheduledUntil != null && !transition.at.isAfter(scheduledUntil)) {
+            add(transition);
+        }
+    }
+
+    private void add(Transition transition) {
+        Instant instant = transition.at.atZone(ZoneId.systemDefault()).toInstant();
+        long at = instant.toEpochMilli() + (instant.getNano() % 1_000_000 == 0 ? 0 : 1);
+        if (!wheel.add(at, transition)) {
+            overdue.add(transition);
+        }
+    }
+
+    private void advanceSafely() {
+        try {
+            advance();
+        } catch (RuntimeException e) {
+            log.error("Booking lifecycle transition failed", e);
+        }
+    }
+
+    private void refreshSafely() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.error("Booking lifecycle refresh failed", e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @AllArgsConstructor
+    private static class Transition {
+        private final int bookingId;
+        private final LocalDateTime at;
+        private final BookingLifecycle lifecycle;
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.lifecycle;
+
+import lombok.AllArgsConstructor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class TimingWheel<T> {
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final ArrayDeque<Timer<T>>[] buckets;
+    private long currentTime;
+    private TimingWheel<T> overflow;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.buckets = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.currentTime = startMs - startMs % tickMs;
+    }
+
+    public boolean add(long expirationMs, T task) {
+        long remainder = expirationMs % tickMs;
+        long deadlineMs = remainder == 0 ? expirationMs : expirationMs - remainder + tickMs;
+        if (!place(new Timer<>(deadlineMs, task))) {
+            return false;
+        }
+        size++;
+        return true;
+    }
+
+    public void advance(long timeMs, Consumer<T> expired) {
+        long target = timeMs - timeMs % tickMs;
+        List<Timer<T>> due = new ArrayList<>();
+        while (currentTime < target) {
+            tick(currentTime + tickMs, due);
+            for (Timer<T> timer : due) {
+                if (!place(timer)) {
+                    size--;
+                    expired.accept(timer.task);
+                }
+            }
+            due.clear();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private boolean place(Timer<T> timer) {
+        if (timer.deadlineMs < currentTime + tickMs) {
+            return false;
+        }
+        if (timer.deadlineMs < currentTime + interval) {
+            buckets[(int) (timer.deadlineMs / tickMs % wheelSize)].add(timer);
+            return true;
+        }
+        if (overflow == null) {
+            overflow = new TimingWheel<>(interval, wheelSize, currentTime);
+        }
+        return overflow.place(timer);
+    }
+
+    private void tick(long time, List<Timer<T>> due) {
+        currentTime = time;
+        ArrayDeque<Timer<T>> bucket = buckets[(int) (time / tickMs % wheelSize)];
+        due.addAll(bucket);
+        bucket.clear();
+        if (overflow != null && time % overflow.tickMs == 0) {
+            overflow.tick(time, due);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Timer<T> {
+        private final long deadlineMs;
+        private final T task;
+    }
+}
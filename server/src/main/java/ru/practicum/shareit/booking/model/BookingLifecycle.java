@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+
+public enum BookingLifecycle {
+    UPCOMING,
+    STARTED,
+    FINISHED;
+
+    public static BookingLifecycle at(LocalDateTime start, LocalDateTime end, LocalDateTime currentTime) {
+        if (currentTime.isBefore(start)) {
+            return UPCOMING;
+        }
+        return currentTime.isBefore(end) ? STARTED : FINISHED;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.*;
+import ru.practicum.shareit.booking.event.BookingEventType;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "outbox")
+@Builder
+@AllArgsConstructor
+public class BookingOutboxEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_seq", allocationSize = 50)
+    @Column(name = "event_id")
+    private long id;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type")
+    private BookingEventType type;
+    @Column(name = "booking_id")
+    private int bookingId;
+    @Column(name = "item_id")
+    private int itemId;
+    @Column(name = "booker_id")
+    private int bookerId;
+    @Enumerated(EnumType.STRING)
+    private BookingStatus status;
+    @Column(name = "start_date")
+    private LocalDateTime start;
+    @Column(name = "end_date")
+    private LocalDateTime end;
+    @Column(name = "created_date")
+    private LocalDateTime created;
+    private int attempts;
+    @Column(name = "dead_letter")
+    private boolean deadLetter;
+    @Column(name = "last_error")
+    private String lastError;
+}
@@ -1,8 +1,13 @@
 package ru.practicum.shareit.booking.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum BookingStatus {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELED
+    CANCELED;
+
+    public static final Set<BookingStatus> ACTIVE = EnumSet.of(WAITING, APPROVED);
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.BookingOutboxEntry;
+
+import java.util.List;
+
+public interface BookingOutboxRepository extends JpaRepository<BookingOutboxEntry, Long> {
+    List<BookingOutboxEntry> findAllByIdGreaterThanAndDeadLetterFalseOrderByIdAsc(long id, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BookingOutboxEntry e SET e.attempts = :attempts, e.deadLetter = :deadLetter, " +
+            "e.lastError = :lastError WHERE e.id = :id")
+    int recordFailure(long id, int attempts, boolean deadLetter, String lastError);
+}
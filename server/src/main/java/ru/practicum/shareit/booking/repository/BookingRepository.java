@@ -1,41 +1,255 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingLifecycle;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface BookingRepository extends JpaRepository<Booking, Integer> {
+    String EXPORT_FETCH_SIZE = "500";
+
+    @Override
+    @EntityGraph(attributePaths = "item")
+    Optional<Booking> findById(Integer id);
+
+    @EntityGraph(attributePaths = "item")
     List<Booking> findAllByUserIdOrderByStartDesc(int userId, Pageable pageable);
 
+    @EntityGraph(attributePaths = "item")
     List<Booking> findAllByUserIdAndEndBeforeOrderByStartDesc(int userId, LocalDateTime endDateTime, Pageable pageable);
 
+    @EntityGraph(attributePaths = "item")
     List<Booking> findAllByUserIdAndStartAfterOrderByStartDesc(int userId, LocalDateTime startDateTime, Pageable pageable);
 
+    @EntityGraph(attributePaths = "item")
     List<Booking> findAllByUserIdAndStartBeforeAndEndAfterOrderByStartDesc(int userId, LocalDateTime startDateTime,
                                                                            LocalDateTime endDateTime, Pageable pageable);
 
+    @EntityGraph(attributePaths = "item")
     List<Booking> findAllByUserIdAndStatusOrderByStartDesc(int userId, BookingStatus bookingStatus, Pageable pageable);
 
+    @EntityGraph(attributePaths = "item")
     List<Booking> findAllByItemOwnerIdOrderByStartDesc(int ownerId, Pageable pageable);
 
+    @EntityGraph(attributePaths = "item")
     List<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(int ownerId,
                                                                    LocalDateTime endDateTime, Pageable pageable);
 
+    @EntityGraph(attributePaths = "item")
     List<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(int ownerId,
                                                                     LocalDateTime startDateTime, Pageable pageable);
 
+    @EntityGraph(attributePaths = "item")
     List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(int ownerId, LocalDateTime startDateTime,
                                                                                 LocalDateTime endDateTime, Pageable pageable);
 
+    @EntityGraph(attributePaths = "item")
     List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(int ownerId, BookingStatus status, Pageable pageable);
 
-    List<Booking> findAllByItemId(int itemId);
+    @EntityGraph(attributePaths = "item")
+    List<Booking> findAllByUserIdAndLifecycleOrderByStartDesc(int userId, BookingLifecycle lifecycle, Pageable pageable);
+
+    @EntityGraph(attributePaths = "item")
+    List<Booking> findAllByItemOwnerIdAndLifecycleOrderByStartDesc(int ownerId, BookingLifecycle lifecycle,
+                                                                   Pageable pageable);
+
+    @EntityGraph(attributePaths = "item")
+    @Query("SELECT b FROM Booking b WHERE b.user.id = :userId " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findPageByUserId(int userId, LocalDateTime start, int id, Pageable pageable);
+
+    @EntityGraph(attributePaths = "item")
+    @Query("SELECT b FROM Booking b WHERE b.user.id = :userId AND b.end < :currentTime " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findPastPageByUserId(int userId, LocalDateTime currentTime, LocalDateTime start, int id,
+                                       Pageable pageable);
+
+    @EntityGraph(attributePaths = "item")
+    @Query("SELECT b FROM Booking b WHERE b.user.id = :userId AND b.start > :currentTime " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findFuturePageByUserId(int userId, LocalDateTime currentTime, LocalDateTime start, int id,
+                                         Pageable pageable);
+
+    @EntityGraph(attributePaths = "item")
+    @Query("SELECT b FROM Booking b WHERE b.user.id = :userId AND b.start < :currentTime AND b.end > :currentTime " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findCurrentPageByUserId(int userId, LocalDateTime currentTime, LocalDateTime start, int id,
+                                          Pageable pageable);
+
+    @EntityGraph(attributePaths = "item")
+    @Query("SELECT b FROM Booking b WHERE b.user.id = :userId AND b.status = :status " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findPageByUserIdAndStatus(int userId, BookingStatus status, LocalDateTime start, int id,
+                                            Pageable pageable);
+
+    @EntityGraph(attributePaths = "item")
+    @Query("SELECT b FROM Booking b WHERE b.user.id = :userId AND b.lifecycle = :lifecycle " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findPageByUserIdAndLifecycle(int userId, BookingLifecycle lifecycle, LocalDateTime start, int id,
+                                               Pageable pageable);
+
+    @EntityGraph(attributePaths = "item")
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findPageByItemOwnerId(int ownerId, LocalDateTime start, int id, Pageable pageable);
+
+    @EntityGraph(attributePaths = "item")
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.end < :currentTime " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findPastPageByItemOwnerId(int ownerId, LocalDateTime currentTime, LocalDateTime start, int id,
+                                            Pageable pageable);
+
+    @EntityGraph(attributePaths = "item")
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.start > :currentTime " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findFuturePageByItemOwnerId(int ownerId, LocalDateTime currentTime, LocalDateTime start, int id,
+                                              Pageable pageable);
+
+    @EntityGraph(attributePaths = "item")
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId " +
+            "AND b.start < :currentTime AND b.end > :currentTime " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findCurrentPageByItemOwnerId(int ownerId, LocalDateTime currentTime, LocalDateTime start, int id,
+                                               Pageable pageable);
+
+    @EntityGraph(attributePaths = "item")
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.status = :status " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findPageByItemOwnerIdAndStatus(int ownerId, BookingStatus status, LocalDateTime start, int id,
+                                                 Pageable pageable);
+
+    @EntityGraph(attributePaths = "item")
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.lifecycle = :lifecycle " +
+            "AND (b.start < :start OR (b.start = :start AND b.id < :id)) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    List<Booking> findPageByItemOwnerIdAndLifecycle(int ownerId, BookingLifecycle lifecycle, LocalDateTime start,
+                                                    int id, Pageable pageable);
+
+    @Query(value = "SELECT b.booking_id AS \"id\", b.item_id AS \"itemId\", b.booker_id AS \"bookerId\" " +
+            "FROM (SELECT bk.booking_id, bk.item_id, bk.booker_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY bk.item_id ORDER BY bk.start_date, bk.booking_id) AS rn " +
+            "FROM bookings bk " +
+            "WHERE bk.item_id IN (:itemIds) AND bk.status = 'APPROVED' AND bk.start_date > :currentTime) b " +
+            "WHERE b.rn = 1", nativeQuery = true)
+    List<ItemBookingView> findNextApprovedByItemIdIn(Collection<Integer> itemIds, LocalDateTime currentTime);
+
+    @Query(value = "SELECT b.booking_id AS \"id\", b.item_id AS \"itemId\", b.booker_id AS \"bookerId\" " +
+            "FROM (SELECT bk.booking_id, bk.item_id, bk.booker_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY bk.item_id ORDER BY bk.end_date DESC, bk.booking_id DESC) AS rn " +
+            "FROM bookings bk " +
+            "WHERE bk.item_id IN (:itemIds) AND bk.status = 'APPROVED' AND bk.start_date < :currentTime) b " +
+            "WHERE b.rn = 1", nativeQuery = true)
+    List<ItemBookingView> findLastApprovedByItemIdIn(Collection<Integer> itemIds, LocalDateTime currentTime);
 
     @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.user.id = :userId AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED AND b.end < :currentTime")
     List<Booking> findAllApprovedByItemIdAndUserId(int itemId, int userId, LocalDateTime currentTime);
-}
\ No newline at end of file
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item " +
+            "WHERE b.user.id = :userId ORDER BY b.start DESC, b.id DESC")
+    Stream<Booking> streamAllByUserId(int userId);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i " +
+            "WHERE i.owner.id = :ownerId ORDER BY b.start DESC, b.id DESC")
+    Stream<Booking> streamAllByItemOwnerId(int ownerId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id = :id AND b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING")
+    int updateStatusIfWaiting(int id, BookingStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Booking b SET b.lifecycle = ru.practicum.shareit.booking.model.BookingLifecycle.STARTED " +
+            "WHERE b.id IN :ids AND b.lifecycle = ru.practicum.shareit.booking.model.BookingLifecycle.UPCOMING " +
+            "AND b.start <= :currentTime AND b.end > :currentTime")
+    int markStarted(Collection<Integer> ids, LocalDateTime currentTime);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Booking b SET b.lifecycle = ru.practicum.shareit.booking.model.BookingLifecycle.FINISHED " +
+            "WHERE b.id IN :ids AND b.lifecycle <> ru.practicum.shareit.booking.model.BookingLifecycle.FINISHED " +
+            "AND b.end <= :currentTime")
+    int markFinished(Collection<Integer> ids, LocalDateTime currentTime);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Booking b SET b.lifecycle = ru.practicum.shareit.booking.model.BookingLifecycle.STARTED " +
+            "WHERE b.lifecycle = ru.practicum.shareit.booking.model.BookingLifecycle.UPCOMING " +
+            "AND b.start <= :currentTime AND b.end > :currentTime")
+    int markAllStarted(LocalDateTime currentTime);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Booking b SET b.lifecycle = ru.practicum.shareit.booking.model.BookingLifecycle.FINISHED " +
+            "WHERE b.lifecycle IN (ru.practicum.shareit.booking.model.BookingLifecycle.UPCOMING, " +
+            "ru.practicum.shareit.booking.model.BookingLifecycle.STARTED) AND b.end <= :currentTime")
+    int markAllFinished(LocalDateTime currentTime);
+
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS end, b.status AS status FROM Booking b " +
+            "WHERE b.lifecycle = ru.practicum.shareit.booking.model.BookingLifecycle.UPCOMING " +
+            "AND b.start > :from AND b.start <= :to")
+    List<BookingIntervalView> findStartingBetween(LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS end, b.status AS status FROM Booking b " +
+            "WHERE b.lifecycle IN (ru.practicum.shareit.booking.model.BookingLifecycle.UPCOMING, " +
+            "ru.practicum.shareit.booking.model.BookingLifecycle.STARTED) AND b.end > :from AND b.end <= :to")
+    List<BookingIntervalView> findEndingBetween(LocalDateTime from, LocalDateTime to);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids")
+    List<Booking> findAllForUpdateByIdIn(Collection<Integer> ids);
+
+    @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.start < :end AND b.end > :start")
+    boolean existsOverlapping(int itemId, Collection<BookingStatus> statuses, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS end, b.status AS status FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.end > :currentTime " +
+            "ORDER BY b.start, b.id")
+    List<BookingIntervalView> findIntervalsByItemId(int itemId, Collection<BookingStatus> statuses,
+                                                    LocalDateTime currentTime);
+
+    @Query("SELECT DISTINCT b.item.id FROM Booking b " +
+            "WHERE b.item.id IN :itemIds AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "AND b.start < :end AND b.end > :start")
+    List<Integer> findApprovedItemIdsBetween(Collection<Integer> itemIds, LocalDateTime start, LocalDateTime end);
+}
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.RequestBookingStatus;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingResponseDto getById(int bookingId, int userId);
@@ -13,7 +17,19 @@ public interface BookingService {
 
     List<BookingResponseDto> getAllByStateForOwner(RequestBookingStatus requestBookingStatus, int userId, int from, int size);
 
+    List<BookingResponseDto> getAllByStateAfter(RequestBookingStatus requestBookingStatus, int userId,
+                                                BookingCursor after, int size);
+
+    List<BookingResponseDto> getAllByStateForOwnerAfter(RequestBookingStatus requestBookingStatus, int userId,
+                                                        BookingCursor after, int size);
+
+    void checkExport(int userId);
+
+    void export(int userId, boolean forOwner, Consumer<BookingResponseDto> consumer);
+
     BookingResponseDto create(BookingRequestDto bookingRequestDto, int userId);
 
     BookingResponseDto approve(int bookingId, boolean approved, int userId);
+
+    List<BookingDecisionResultDto> approveBatch(List<BookingDecisionDto> decisions, int userId);
 }
\ No newline at end of file
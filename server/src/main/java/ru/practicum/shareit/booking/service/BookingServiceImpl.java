@@ -1,43 +1,64 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.RequestBookingStatus;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.lifecycle.BookingLifecycleScheduler;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingLifecycle;
+import ru.practicum.shareit.booking.model.BookingOutboxEntry;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingOutboxRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class BookingServiceImpl implements BookingService {
+    private static final String OVERLAP_CONSTRAINT = "bookings_no_overlap";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final int MAX_BATCH_SIZE = 100;
 
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final ItemRepository itemRepository;
+    private final BookingOutboxRepository bookingOutboxRepository;
+    private final BookingLifecycleScheduler bookingLifecycleScheduler;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional(readOnly = true)
     public BookingResponseDto getById(int bookingId, int userId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        User user = userCache.get(userId);
         if (!(booking.getUser().getId() == userId || booking.getItem().getOwner().getId() == userId)) {
             throw new BookingNotBelongException("Не найдено подходящих бронирований для пользователя " + userId);
         }
@@ -47,9 +68,14 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional(readOnly = true)
     public List<BookingResponseDto> getAllByState(RequestBookingStatus requestBookingStatus, int userId, int from, int size) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
-        Pageable pageable = PageRequest.of(from / size, size);
+        User user = userCache.get(userId);
+        Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "id"));
+        BookingLifecycle lifecycle = toLifecycle(requestBookingStatus);
+        if (lifecycle != null) {
+            return bookingRepository.findAllByUserIdAndLifecycleOrderByStartDesc(userId, lifecycle, pageable).stream()
+                    .map(BookingMapper::toDto)
+                    .collect(Collectors.toList());
+        }
         switch (requestBookingStatus) {
             case ALL:
                 return bookingRepository.findAllByUserIdOrderByStartDesc(userId, pageable).stream()
@@ -88,9 +114,14 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional(readOnly = true)
     public List<BookingResponseDto> getAllByStateForOwner(RequestBookingStatus requestBookingStatus, int userId, int from, int size) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
-        Pageable pageable = PageRequest.of(from / size, size);
+        User user = userCache.get(userId);
+        Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "id"));
+        BookingLifecycle lifecycle = toLifecycle(requestBookingStatus);
+        if (lifecycle != null) {
+            return bookingRepository.findAllByItemOwnerIdAndLifecycleOrderByStartDesc(userId, lifecycle, pageable).stream()
+                    .map(BookingMapper::toDto)
+                    .collect(Collectors.toList());
+        }
         switch (requestBookingStatus) {
             case ALL:
                 return bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId, pageable).stream()
@@ -126,11 +157,124 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> getAllByStateAfter(RequestBookingStatus requestBookingStatus, int userId,
+                                                       BookingCursor after, int size) {
+        User user = userCache.get(userId);
+        Pageable pageable = PageRequest.of(0, size);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings;
+        BookingLifecycle lifecycle = toLifecycle(requestBookingStatus);
+        if (lifecycle != null) {
+            return bookingRepository.findPageByUserIdAndLifecycle(userId, lifecycle,
+                            after.getStart(), after.getId(), pageable).stream()
+                    .map(BookingMapper::toDto)
+                    .collect(Collectors.toList());
+        }
+        switch (requestBookingStatus) {
+            case ALL:
+                bookings = bookingRepository.findPageByUserId(userId, after.getStart(), after.getId(), pageable);
+                break;
+            case PAST:
+                bookings = bookingRepository.findPastPageByUserId(userId, now,
+                        after.getStart(), after.getId(), pageable);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findFuturePageByUserId(userId, now,
+                        after.getStart(), after.getId(), pageable);
+                break;
+            case CURRENT:
+                bookings = bookingRepository.findCurrentPageByUserId(userId, now,
+                        after.getStart(), after.getId(), pageable);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findPageByUserIdAndStatus(userId, BookingStatus.WAITING,
+                        after.getStart(), after.getId(), pageable);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findPageByUserIdAndStatus(userId, BookingStatus.REJECTED,
+                        after.getStart(), after.getId(), pageable);
+                break;
+            default:
+                throw new NoSuchStateForBookingSearchException("Неизвестный статус бронирования");
+        }
+        return bookings.stream()
+                .map(BookingMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingResponseDto> getAllByStateForOwnerAfter(RequestBookingStatus requestBookingStatus, int userId,
+                                                               BookingCursor after, int size) {
+        User user = userCache.get(userId);
+        Pageable pageable = PageRequest.of(0, size);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings;
+        BookingLifecycle lifecycle = toLifecycle(requestBookingStatus);
+        if (lifecycle != null) {
+            return bookingRepository.findPageByItemOwnerIdAndLifecycle(userId, lifecycle,
+                            after.getStart(), after.getId(), pageable).stream()
+                    .map(BookingMapper::toDto)
+                    .collect(Collectors.toList());
+        }
+        switch (requestBookingStatus) {
+            case ALL:
+                bookings = bookingRepository.findPageByItemOwnerId(userId, after.getStart(), after.getId(), pageable);
+                break;
+            case PAST:
+                bookings = bookingRepository.findPastPageByItemOwnerId(userId, now,
+                        after.getStart(), after.getId(), pageable);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findFuturePageByItemOwnerId(userId, now,
+                        after.getStart(), after.getId(), pageable);
+                break;
+            case CURRENT:
+                bookings = bookingRepository.findCurrentPageByItemOwnerId(userId, now,
+                        after.getStart(), after.getId(), pageable);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findPageByItemOwnerIdAndStatus(userId, BookingStatus.WAITING,
+                        after.getStart(), after.getId(), pageable);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findPageByItemOwnerIdAndStatus(userId, BookingStatus.REJECTED,
+                        after.getStart(), after.getId(), pageable);
+                break;
+            default:
+                throw new NoSuchStateForBookingSearchException("Неизвестный статус бронирования");
+        }
+        return bookings.stream()
+                .map(BookingMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void checkExport(int userId) {
+        userCache.get(userId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void export(int userId, boolean forOwner, Consumer<BookingResponseDto> consumer) {
+        userCache.get(userId);
+        try (Stream<Booking> bookings = forOwner
+                ? bookingRepository.streamAllByItemOwnerId(userId)
+                : bookingRepository.streamAllByUserId(userId)) {
+            bookings.forEach(booking -> {
+                consumer.accept(BookingMapper.toDto(booking));
+                entityManager.detach(booking);
+            });
+        }
+    }
+
     @Override
     public BookingResponseDto create(BookingRequestDto bookingRequestDto, int userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
-        Item item = itemRepository.findById(bookingRequestDto.getItemId())
+        User user = userCache.get(userId);
+        Item item = itemRepository.findForUpdateById(bookingRequestDto.getItemId())
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
         if (!item.getAvailable()) {
             throw new ItemNotAvailableException("Вещь недоступна для бронирования");
@@ -142,22 +286,125 @@ public class BookingServiceImpl implements BookingService {
         booking.setUser(user);
         booking.setItem(item);
         booking.setStatus(BookingStatus.WAITING);
-        return BookingMapper.toDto(bookingRepository.save(booking));
+        if (bookingRepository.existsOverlapping(item.getId(), BookingStatus.ACTIVE, booking.getStart(), booking.getEnd())) {
+            throw new BookingOverlapException("Вещь уже забронирована на это время");
+        }
+        return BookingMapper.toDto(saveNew(booking));
     }
 
     @Override
     public BookingResponseDto approve(int bookingId, boolean approved, int userId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        User user = userCache.get(userId);
         if (booking.getItem().getOwner().getId() != userId) {
             throw new NotFoundException("Подтверждение доступно только для владельца вещи");
         }
         if (booking.getStatus() != BookingStatus.WAITING) {
             throw new BookingNotWaitingForApprovalException("Вещь не ожидает подтверждения");
         }
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return BookingMapper.toDto(bookingRepository.save(booking));
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.updateStatusIfWaiting(bookingId, status) == 0) {
+            throw new BookingNotWaitingForApprovalException("Вещь не ожидает подтверждения");
+        }
+        Booking decided = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
+        bookingOutboxRepository.save(BookingMapper.toOutboxEntry(toEventType(status), decided));
+        return BookingMapper.toDto(decided);
+    }
+
+    @Override
+    public List<BookingDecisionResultDto> approveBatch(List<BookingDecisionDto> decisions, int userId) {
+        if (decisions.size() > MAX_BATCH_SIZE) {
+            throw new InvalidDataException("За один запрос можно принять не более " + MAX_BATCH_SIZE + " решений");
+        }
+        User user = userCache.get(userId);
+        Map<Integer, BookingDecisionResultDto> results = new LinkedHashMap<>();
+        Map<Integer, BookingStatus> requested = new HashMap<>();
+        for (BookingDecisionDto decision : decisions) {
+            BookingDecisionResultDto result = BookingDecisionResultDto.builder()
+                    .bookingId(decision.getBookingId())
+                    .build();
+            if (results.putIfAbsent(decision.getBookingId(), result) != null) {
+                results.get(decision.getBookingId()).setError("Повторное решение по бронированию");
+                requested.remove(decision.getBookingId());
+                continue;
+            }
+            requested.put(decision.getBookingId(),
+                    Boolean.TRUE.equals(decision.getApproved()) ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        }
+
+        List<BookingOutboxEntry> events = new ArrayList<>();
+        Map<Integer, Booking> bookings = requested.isEmpty() ? Map.of() : bookingRepository
+                .findAllForUpdateByIdIn(requested.keySet()).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        for (Map.Entry<Integer, BookingStatus> entry : requested.entrySet()) {
+            BookingDecisionResultDto result = results.get(entry.getKey());
+            Booking booking = bookings.get(entry.getKey());
+            if (booking == null) {
+                result.setError("Бронирование не найдено");
+            } else if (booking.getItem().getOwner().getId() != userId) {
+                result.setError("Подтверждение доступно только для владельца вещи");
+            } else if (booking.getStatus() != BookingStatus.WAITING) {
+                result.setStatus(booking.getStatus());
+                result.setError("Вещь не ожидает подтверждения");
+            } else {
+                booking.setStatus(entry.getValue());
+                events.add(BookingMapper.toOutboxEntry(toEventType(entry.getValue()), booking));
+                result.setStatus(entry.getValue());
+            }
+        }
+        if (!events.isEmpty()) {
+            bookingOutboxRepository.saveAll(events);
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    private Booking saveNew(Booking booking) {
+        Booking saved;
+        try {
+            saved = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new BookingOverlapException("Вещь уже забронирована на это время");
+            }
+            throw e;
+        }
+        bookingOutboxRepository.save(BookingMapper.toOutboxEntry(BookingEventType.CREATED, saved));
+        bookingLifecycleScheduler.schedule(saved);
+        return saved;
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException
+                    && OVERLAP_CONSTRAINT.equalsIgnoreCase(((ConstraintViolationException) cause).getConstraintName())) {
+                return true;
+            }
+            if (cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private BookingLifecycle toLifecycle(RequestBookingStatus requestBookingStatus) {
+        if (!bookingLifecycleScheduler.isEnabled()) {
+            return null;
+        }
+        switch (requestBookingStatus) {
+            case CURRENT:
+                return BookingLifecycle.STARTED;
+            case PAST:
+                return BookingLifecycle.FINISHED;
+            case FUTURE:
+                return BookingLifecycle.UPCOMING;
+            default:
+                return null;
+        }
+    }
+
+    private BookingEventType toEventType(BookingStatus status) {
+        return status == BookingStatus.APPROVED ? BookingEventType.APPROVED : BookingEventType.REJECTED;
     }
 }
\ No newline at end of file
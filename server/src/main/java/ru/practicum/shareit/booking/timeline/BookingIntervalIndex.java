@@ -0,0 +1,71 @@
+package ru.practicum.shareit.booking.timeline;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+public class BookingIntervalIndex {
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+    private final Cache<Integer, ItemTimeline> timelines;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.interval-index.enabled:true}") boolean enabled,
+                                @Value("${shareit.booking.outbox.enabled:true}") boolean outboxEnabled,
+                                @Value("${shareit.booking.interval-index.maximum-size:10000}") long maximumSize,
+                                @Value("${shareit.booking.interval-index.expire-after-access:10m}") Duration expireAfterAccess) {
+        this.bookingRepository = bookingRepository;
+        // Timelines are kept up to date by outbox events only, so without the dispatcher they would go stale
+        this.enabled = enabled && outboxEnabled;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener
+    public void on(BookingEvent event) {
+        timelines.asMap().computeIfPresent(event.getItemId(), (id, timeline) -> {
+            if (BookingStatus.ACTIVE.contains(event.getStatus())) {
+                timeline.add(event.getBookingId(), event.getStart(), event.getEnd(), event.getStatus());
+            } else {
+                timeline.remove(event.getBookingId());
+            }
+            return timeline;
+        });
+    }
+
+    public List<ItemAvailabilityDto.Interval> freeWindows(int itemId, LocalDateTime from, LocalDateTime to) {
+        ItemTimeline timeline = enabled ? timeline(itemId) : load(itemId);
+        return timeline.freeWindows(from, to);
+    }
+
+    ItemTimeline timeline(int itemId) {
+        return timelines.get(itemId, this::load);
+    }
+
+    private ItemTimeline load(int itemId) {
+        ItemTimeline timeline = new ItemTimeline();
+        for (BookingIntervalView interval : bookingRepository.findIntervalsByItemId(itemId, BookingStatus.ACTIVE,
+                LocalDateTime.now())) {
+            timeline.add(interval.getId(), interval.getStart(), interval.getEnd(), interval.getStatus());
+        }
+        return timeline;
+    }
+}
@@ -0,0 +1,147 @@
+package ru.practicum.shareit.booking.timeline;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ItemTimeline {
+    private int[] ids = new int[4];
+    private long[] starts = new long[4];
+    private long[] ends = new long[4];
+    private long[] maxEnds = new long[4];
+    private BookingStatus[] statuses = new BookingStatus[4];
+    private int size;
+
+    public synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        int count = countStartingBefore(toMillis(end));
+        return count > 0 && maxEnds[count - 1] > toMillis(start);
+    }
+
+    public synchronized List<ItemAvailabilityDto.Interval> freeWindows(LocalDateTime from, LocalDateTime to) {
+        List<ItemAvailabilityDto.Interval> windows = new ArrayList<>();
+        long cursor = toMillis(from);
+        long limit = toMillis(to);
+        int count = countStartingBefore(limit);
+        for (int i = firstEndingAfter(cursor); i < count; i++) {
+            if (starts[i] > cursor) {
+                windows.add(new ItemAvailabilityDto.Interval(toDateTime(cursor), toDateTime(starts[i])));
+            }
+            cursor = Math.max(cursor, ends[i]);
+        }
+        if (cursor < limit) {
+            windows.add(new ItemAvailabilityDto.Interval(toDateTime(cursor), to));
+        }
+        return windows;
+    }
+
+    public synchronized void add(int id, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        remove(id);
+        long startMillis = toMillis(start);
+        int position = countStartingBefore(startMillis + 1);
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            maxEnds = Arrays.copyOf(maxEnds, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+        }
+        int tail = size - position;
+        System.arraycopy(ids, position, ids, position + 1, tail);
+        System.arraycopy(starts, position, starts, position + 1, tail);
+        System.arraycopy(ends, position, ends, position + 1, tail);
+        System.arraycopy(statuses, position, statuses, position + 1, tail);
+        ids[position] = id;
+        starts[position] = startMillis;
+        ends[position] = toMillis(end);
+        statuses[position] = status;
+        size++;
+        updateMaxEnds(position);
+    }
+
+    public synchronized boolean remove(int id) {
+        int position = indexOf(id);
+        if (position < 0) {
+            return false;
+        }
+        int tail = size - position - 1;
+        System.arraycopy(ids, position + 1, ids, position, tail);
+        System.arraycopy(starts, position + 1, starts, position, tail);
+        System.arraycopy(ends, position + 1, ends, position, tail);
+        System.arraycopy(statuses, position + 1, statuses, position, tail);
+        size--;
+        statuses[size] = null;
+        updateMaxEnds(position);
+        return true;
+    }
+
+    public synchronized void setStatus(int id, BookingStatus status) {
+        int position = indexOf(id);
+        if (position >= 0) {
+            statuses[position] = status;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private int countStartingBefore(long millis) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < millis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int firstEndingAfter(long millis) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (maxEnds[middle] <= millis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int indexOf(int id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void updateMaxEnds(int from) {
+        long max = from == 0 ? Long.MIN_VALUE : maxEnds[from - 1];
+        for (int i = from; i < size; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+    static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+}
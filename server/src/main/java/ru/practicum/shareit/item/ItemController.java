@@ -1,17 +1,25 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
+    public static final String NDJSON = "application/x-ndjson";
+
     private final ItemService itemService;
 
     @PostMapping
@@ -19,6 +27,12 @@ public class ItemController {
         return itemService.create(itemDto, userId);
     }
 
+    @PostMapping(value = "/bulk", consumes = ItemController.NDJSON)
+    public ItemImportResultDto importItems(@RequestHeader("X-Sharer-User-Id") int userId,
+                                           HttpServletRequest request) throws IOException {
+        return itemService.importItems(request.getReader(), userId);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto createComment(@PathVariable int itemId,
                                     @RequestHeader("X-Sharer-User-Id") int userId,
@@ -46,6 +60,23 @@ public class ItemController {
         return itemService.getAllBySearchText(searchText, from, size);
     }
 
+    @GetMapping("/search/free")
+    public List<ItemDto> getAllFreeBySearchText(@RequestParam(name = "text") String searchText,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                                @RequestParam(defaultValue = "0") int from,
+                                                @RequestParam(defaultValue = "20") int size) {
+        return itemService.getAllFreeBySearchText(searchText, start, end, from, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@RequestHeader("X-Sharer-User-Id") int userId,
+                                               @PathVariable int itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(userId, itemId, from, to);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@PathVariable int itemId,
                           @RequestHeader("X-Sharer-User-Id") int userId,
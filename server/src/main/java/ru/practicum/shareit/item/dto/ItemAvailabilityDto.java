@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class ItemAvailabilityDto {
+    private Integer itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<Interval> free;
+
+    @Data
+    @AllArgsConstructor
+    public static class Interval {
+        private LocalDateTime start;
+        private LocalDateTime end;
+    }
+}
@@ -1,10 +1,17 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
+    @EntityGraph(attributePaths = "author")
     List<Comment> findAllByItemId(int itemId);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id IN :itemIds ORDER BY c.id")
+    List<Comment> findAllByItemIdIn(Collection<Integer> itemIds);
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.sql.Types;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class ItemBatchRepository {
+    private static final String NEXT_ID_SQL = "SELECT nextval('items_seq')";
+    private static final String INSERT_SQL = "INSERT INTO items (item_id, item_name, description, available, owner_id, request_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<Item> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        int nextId = 0;
+        int idLimit = 0;
+        for (Item item : items) {
+            if (nextId == idLimit) {
+                nextId = jdbcTemplate.queryForObject(NEXT_ID_SQL, Integer.class);
+                idLimit = nextId + ID_ALLOCATION_SIZE;
+            }
+            item.setId(nextId++);
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, items, items.size(), (statement, item) -> {
+            statement.setInt(1, item.getId());
+            statement.setString(2, item.getName());
+            statement.setString(3, item.getDescription());
+            statement.setBoolean(4, item.getAvailable());
+            statement.setInt(5, item.getOwner().getId());
+            if (item.getItemRequest() != null) {
+                statement.setInt(6, item.getItemRequest().getId());
+            } else {
+                statement.setNull(6, Types.INTEGER);
+            }
+        });
+    }
+}
@@ -2,19 +2,69 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Integer> {
     List<Item> findAllByOwnerId(Integer ownerId, Pageable pageable);
 
+    boolean existsByIdAndOwnerId(Integer id, Integer ownerId);
+
     @Query("select i from Item i " +
             "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
             "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
-            "and i.available = true ")
+            "and i.available = true " +
+            "order by case when upper(i.name) = upper(?1) then 0 " +
+            "when upper(i.name) like upper(concat(?1, '%')) then 1 " +
+            "when upper(i.name) like upper(concat('%', ?1, '%')) then 2 else 3 end, i.id")
     List<Item> findBySearchText(String searchText, Pageable pageable);
 
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.available = true " +
+            "AND (i.item_name ILIKE CONCAT('%', :searchText, '%') " +
+            "OR i.description ILIKE CONCAT('%', :searchText, '%')) " +
+            "ORDER BY GREATEST(word_similarity(:searchText, i.item_name), " +
+            "word_similarity(:searchText, i.description)) DESC, i.item_id",
+            nativeQuery = true)
+    List<Item> findRankedBySearchText(String searchText, Pageable pageable);
+
+    @Query("select i from Item i " +
+            "where (upper(i.name) like upper(concat('%', :searchText, '%')) " +
+            "or upper(i.description) like upper(concat('%', :searchText, '%'))) " +
+            "and i.available = true " +
+            "and not exists (select b.id from Booking b where b.item = i " +
+            "and b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "and b.start < :end and b.end > :start) " +
+            "order by case when upper(i.name) = upper(:searchText) then 0 " +
+            "when upper(i.name) like upper(concat(:searchText, '%')) then 1 " +
+            "when upper(i.name) like upper(concat('%', :searchText, '%')) then 2 else 3 end, i.id")
+    List<Item> findFreeBySearchText(String searchText, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.available = true " +
+            "AND (i.item_name ILIKE CONCAT('%', :searchText, '%') " +
+            "OR i.description ILIKE CONCAT('%', :searchText, '%')) " +
+            "AND NOT EXISTS (SELECT 1 FROM bookings b WHERE b.item_id = i.item_id AND b.status = 'APPROVED' " +
+            "AND b.start_date < :end AND b.end_date > :start) " +
+            "ORDER BY GREATEST(word_similarity(:searchText, i.item_name), " +
+            "word_similarity(:searchText, i.description)) DESC, i.item_id",
+            nativeQuery = true)
+    List<Item> findFreeRankedBySearchText(String searchText, LocalDateTime start, LocalDateTime end,
+                                          Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> findForUpdateById(int id);
+
     List<Item> findAllByItemRequestId(int requestId);
+
+    @Query("select i from Item i where i.itemRequest.id in :requestIds order by i.id")
+    List<Item> findAllByItemRequestIdIn(Collection<Integer> requestIds);
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = ItemSearchEngine.PROPERTY, havingValue = "index")
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine {
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final int FREE_SEARCH_BATCH_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemInvertedIndex index = new ItemInvertedIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refresh() {
+        Pageable pageable = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+        Slice<Item> items;
+        do {
+            items = itemRepository.findAll(pageable);
+            items.forEach(index::put);
+            pageable = items.nextPageable();
+        } while (items.hasNext());
+    }
+
+    @Override
+    public List<Item> search(String searchText, Pageable pageable) {
+        return load(index.search(searchText, pageable.getOffset(), pageable.getPageSize()));
+    }
+
+    @Override
+    public List<Item> searchFree(String searchText, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        List<Integer> itemIds = new ArrayList<>();
+        long skipped = 0;
+        int lastId = -1;
+        List<Integer> candidates;
+        do {
+            candidates = index.searchAfter(searchText, lastId, FREE_SEARCH_BATCH_SIZE);
+            if (candidates.isEmpty()) {
+                break;
+            }
+            lastId = candidates.get(candidates.size() - 1);
+            Set<Integer> booked = new HashSet<>(bookingRepository.findApprovedItemIdsBetween(candidates, start, end));
+            for (int itemId : candidates) {
+                if (booked.contains(itemId)) {
+                    continue;
+                }
+                if (skipped < pageable.getOffset()) {
+                    skipped++;
+                } else if (itemIds.size() < pageable.getPageSize()) {
+                    itemIds.add(itemId);
+                }
+            }
+        } while (itemIds.size() < pageable.getPageSize() && candidates.size() == FREE_SEARCH_BATCH_SIZE);
+        return load(itemIds);
+    }
+
+    private List<Item> load(List<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return itemIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void index(Item item) {
+        afterCommit(() -> index.put(item));
+    }
+
+    @Override
+    public void remove(int itemId) {
+        afterCommit(() -> index.remove(itemId));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
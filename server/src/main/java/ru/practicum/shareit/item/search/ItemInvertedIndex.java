@@ -0,0 +1,194 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+public class ItemInvertedIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Integer, String[]> documents = new HashMap<>();
+    private final BitSet available = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(Item item) {
+        String[] document = {normalize(item.getName()), normalize(item.getDescription())};
+        lock.writeLock().lock();
+        try {
+            removeDocument(item.getId());
+            documents.put(item.getId(), document);
+            for (long gram : grams(document)) {
+                postings.computeIfAbsent(gram, key -> new Postings()).add(item.getId());
+            }
+            available.set(item.getId(), Boolean.TRUE.equals(item.getAvailable()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int itemId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Integer> search(String searchText, long offset, int limit) {
+        return search(searchText, -1, offset, limit);
+    }
+
+    public List<Integer> searchAfter(String searchText, int afterId, int limit) {
+        return search(searchText, afterId, 0, limit);
+    }
+
+    private List<Integer> search(String searchText, int afterId, long offset, int limit) {
+        String query = normalize(searchText);
+        List<Integer> result = new ArrayList<>();
+        long skipped = 0;
+        lock.readLock().lock();
+        try {
+            Postings[] lists = lookup(query);
+            if (lists == null) {
+                return result;
+            }
+            PrimitiveIterator.OfInt candidates = lists.length == 0
+                    ? IntStream.iterate(available.nextSetBit(afterId + 1), id -> id >= 0,
+                            id -> available.nextSetBit(id + 1)).iterator()
+                    : lists[0].streamAfter(afterId).iterator();
+            while (candidates.hasNext() && result.size() < limit) {
+                int itemId = candidates.nextInt();
+                if (!available.get(itemId) || !containsAll(lists, itemId) || !matches(documents.get(itemId), query)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    result.add(itemId);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Postings[] lookup(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return new Postings[0];
+        }
+        Set<Long> queryGrams = new HashSet<>();
+        addGrams(query, queryGrams);
+        Postings[] lists = new Postings[queryGrams.size()];
+        int i = 0;
+        for (long gram : queryGrams) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return null;
+            }
+            lists[i++] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        return lists;
+    }
+
+    private void removeDocument(int itemId) {
+        String[] document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        for (long gram : grams(document)) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(itemId) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+        available.clear(itemId);
+    }
+
+    private static boolean containsAll(Postings[] lists, int itemId) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(itemId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(String[] document, String query) {
+        return document != null && (document[0].contains(query) || document[1].contains(query));
+    }
+
+    private static Set<Long> grams(String[] document) {
+        Set<Long> grams = new HashSet<>();
+        for (String text : document) {
+            addGrams(text, grams);
+        }
+        return grams;
+    }
+
+    private static void addGrams(String text, Set<Long> grams) {
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    private static class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            if (size > 4 && size < ids.length / 4) {
+                ids = Arrays.copyOf(ids, ids.length / 2);
+            }
+            return true;
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        IntStream streamAfter(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            return Arrays.stream(ids, position >= 0 ? position + 1 : -position - 1, size);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemSearchEngine {
+    String PROPERTY = "shareit.item-search.engine";
+
+    List<Item> search(String searchText, Pageable pageable);
+
+    List<Item> searchFree(String searchText, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    default void index(Item item) {
+    }
+
+    default void remove(int itemId) {
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = ItemSearchEngine.PROPERTY, havingValue = "like", matchIfMissing = true)
+public class LikeItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String searchText, Pageable pageable) {
+        return itemRepository.findBySearchText(searchText, pageable);
+    }
+
+    @Override
+    public List<Item> searchFree(String searchText, LocalDateTime start, LocalDateTime end, Pageable pageable) {
+        return itemRepository.findFreeBySearchText(searchText, start, end, pageable);
+    }
+}
@@ -1,13 +1,19 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 
+import java.io.BufferedReader;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
     ItemDto create(ItemDto itemDto, int userId);
 
+    ItemImportResultDto importItems(BufferedReader reader, int userId);
+
     CommentDto createComment(CommentDto commentDto, int userId, int itemId);
 
     ItemDto getById(int userId, int itemId);
@@ -16,6 +22,10 @@ public interface ItemService {
 
     List<ItemDto> getAllBySearchText(String searchText, int from, int size);
 
+    List<ItemDto> getAllFreeBySearchText(String searchText, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    ItemAvailabilityDto getAvailability(int userId, int itemId, LocalDateTime from, LocalDateTime to);
+
     ItemDto update(ItemDto itemDto, int itemId, int userId);
 
     void delete(int itemId);
@@ -1,46 +1,68 @@
 package ru.practicum.shareit.item.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingIntervalIndex;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.CommentMapper;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemBatchRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.feed.ItemRequestFeed;
+import ru.practicum.shareit.request.feed.ItemRequestSubscriptions;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ItemServiceImpl implements ItemService {
+    private static final int IMPORT_BATCH_SIZE = 1000;
 
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemBatchRepository itemBatchRepository;
+    private final ItemRequestFeed itemRequestFeed;
+    private final ItemRequestSubscriptions itemRequestSubscriptions;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
 
     @Override
     public ItemDto create(ItemDto itemDto, int userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        User user = userCache.get(userId);
         Item item = ItemMapper.fromDto(itemDto);
         item.setOwner(user);
         if (itemDto.getRequestId() != null) {
@@ -48,13 +70,59 @@ public class ItemServiceImpl implements ItemService {
                     .orElseThrow(() -> new NotFoundException("Запрос не найден"));
             item.setItemRequest(itemRequest);
         }
-        return ItemMapper.toDto(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        itemSearchEngine.index(saved);
+        itemRequestFeed.putItem(saved);
+        itemRequestSubscriptions.itemAttached(saved);
+        return ItemMapper.toDto(saved);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ItemImportResultDto importItems(BufferedReader reader, int userId) {
+        User user = userCache.get(userId);
+        List<ItemImportResultDto.RowError> errors = new ArrayList<>();
+        Map<Long, ItemDto> rows = new LinkedHashMap<>();
+        long imported = 0;
+        long line = 0;
+        try {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                ItemDto itemDto;
+                try {
+                    itemDto = objectMapper.readValue(text, ItemDto.class);
+                } catch (JsonProcessingException e) {
+                    errors.add(new ItemImportResultDto.RowError(line, "Некорректный формат строки"));
+                    continue;
+                }
+                String error = validateImportRow(itemDto);
+                if (error != null) {
+                    errors.add(new ItemImportResultDto.RowError(line, error));
+                    continue;
+                }
+                rows.put(line, itemDto);
+                if (rows.size() == IMPORT_BATCH_SIZE) {
+                    imported += importBatch(rows, user, errors);
+                    rows.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        imported += importBatch(rows, user, errors);
+        return ItemImportResultDto.builder()
+                .imported(imported)
+                .errors(errors)
+                .build();
     }
 
     @Override
     public CommentDto createComment(CommentDto commentDto, int userId, int itemId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        User user = userCache.get(userId);
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
         Comment comment = CommentMapper.fromDto(commentDto);
@@ -73,33 +141,85 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
         ItemDto itemDto = ItemMapper.toDto(item);
-        itemDto = (item.getOwner().getId() == userId) ? addBookingInfo(itemDto) : itemDto;
-        itemDto = addComments(itemDto);
+        if (item.getOwner().getId() == userId) {
+            addBookingInfo(List.of(itemDto));
+        }
+        itemDto.setComments(commentRepository.findAllByItemId(itemId).stream()
+                .map(CommentMapper::toDto)
+                .collect(Collectors.toList()));
         return itemDto;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemDto> getAllByOwnerId(int userId, int from, int size) {
-        return itemRepository.findAllByOwnerId(userId, PageRequest.of(from / size, size)).stream()
+        List<ItemDto> itemDtos = itemRepository.findAllByOwnerId(userId, PageRequest.of(from / size, size)).stream()
                 .map(ItemMapper::toDto)
-                .map(this::addBookingInfo)
-                .map(this::addComments)
                 .sorted(Comparator.comparing(ItemDto::getId))
                 .collect(Collectors.toList());
+        if (itemDtos.isEmpty()) {
+            return itemDtos;
+        }
+        List<Integer> itemIds = itemDtos.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        Map<Integer, List<CommentDto>> commentsByItemId = commentRepository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toDto, Collectors.toList())));
+        addBookingInfo(itemDtos);
+        for (ItemDto itemDto : itemDtos) {
+            itemDto.setComments(commentsByItemId.getOrDefault(itemDto.getId(), new ArrayList<>()));
+        }
+        return itemDtos;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemDto> getAllBySearchText(String searchText, int from, int size) {
         if (searchText.isBlank()) {
-            return Collections.EMPTY_LIST;
+            return List.of();
         }
-        return itemRepository.findBySearchText(searchText, PageRequest.of(from, size)).stream()
+        return itemSearchEngine.search(searchText, PageRequest.of(from / size, size)).stream()
                 .map(ItemMapper::toDto)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> getAllFreeBySearchText(String searchText, LocalDateTime start, LocalDateTime end,
+                                                int from, int size) {
+        if (!end.isAfter(start)) {
+            throw new InvalidDataException("Конец периода должен быть после его начала");
+        }
+        if (searchText.isBlank()) {
+            return List.of();
+        }
+        return itemSearchEngine.searchFree(searchText, start, end, PageRequest.of(from / size, size)).stream()
+                .map(ItemMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemAvailabilityDto getAvailability(int userId, int itemId, LocalDateTime from, LocalDateTime to) {
+        User user = userCache.get(userId);
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
+        if (!to.isAfter(from)) {
+            throw new InvalidDataException("Конец периода должен быть после его начала");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from.isBefore(now) ? now : from;
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .free(item.getAvailable() && to.isAfter(start)
+                        ? bookingIntervalIndex.freeWindows(itemId, start, to)
+                        : new ArrayList<>())
+                .build();
+    }
+
     @Override
     public ItemDto update(ItemDto itemDto, int itemId, int userId) {
         Item stored = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException("Вещь не найдена"));
@@ -110,7 +230,10 @@ public class ItemServiceImpl implements ItemService {
         Optional.ofNullable(itemDto.getDescription()).ifPresent(stored::setDescription);
         Optional.ofNullable(itemDto.getAvailable()).ifPresent(stored::setAvailable);
         try {
-            return ItemMapper.toDto(itemRepository.save(stored));
+            Item saved = itemRepository.save(stored);
+            itemSearchEngine.index(saved);
+            itemRequestFeed.putItem(saved);
+            return ItemMapper.toDto(saved);
         } catch (DataIntegrityViolationException e) {
             throw new DataConflictException(e.getMessage());
         }
@@ -119,34 +242,87 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public void delete(int itemId) {
         itemRepository.deleteById(itemId);
+        itemSearchEngine.remove(itemId);
+        itemRequestFeed.removeItem(itemId);
     }
 
-    private ItemDto addBookingInfo(ItemDto itemDto) {
-        List<Booking> bookings = bookingRepository.findAllByItemId(itemDto.getId());
-        Booking nextBooking = bookings.stream()
-                .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
-                .filter(booking -> booking.getStatus().equals(BookingStatus.APPROVED))
-                .min(Comparator.comparing(Booking::getStart))
-                .orElse(null);
-        Booking lastBooking = bookings.stream()
-                .filter(booking -> booking.getStart().isBefore(LocalDateTime.now()))
-                .max(Comparator.comparing(Booking::getEnd))
-                .orElse(null);
-        itemDto.setNextBooking(nextBooking != null ? ItemDto.ItemBooking.builder()
-                .id(nextBooking.getId())
-                .bookerId(nextBooking.getUser().getId())
-                .build() : null);
-        itemDto.setLastBooking(lastBooking != null ? ItemDto.ItemBooking.builder()
-                .id(lastBooking.getId())
-                .bookerId(lastBooking.getUser().getId())
-                .build() : null);
-        return itemDto;
+    private void addBookingInfo(List<ItemDto> itemDtos) {
+        List<Integer> itemIds = itemDtos.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, ItemDto.ItemBooking> nextBookings = toItemBookings(
+                bookingRepository.findNextApprovedByItemIdIn(itemIds, now));
+        Map<Integer, ItemDto.ItemBooking> lastBookings = toItemBookings(
+                bookingRepository.findLastApprovedByItemIdIn(itemIds, now));
+        for (ItemDto itemDto : itemDtos) {
+            itemDto.setNextBooking(nextBookings.get(itemDto.getId()));
+            itemDto.setLastBooking(lastBookings.get(itemDto.getId()));
+        }
     }
 
-    private ItemDto addComments(ItemDto itemDto) {
-        itemDto.setComments(commentRepository.findAllByItemId(itemDto.getId()).stream()
-                .map(CommentMapper::toDto)
-                .collect(Collectors.toList()));
-        return itemDto;
+    private Map<Integer, ItemDto.ItemBooking> toItemBookings(List<ItemBookingView> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(ItemBookingView::getItemId, booking -> ItemDto.ItemBooking.builder()
+                        .id(booking.getId())
+                        .bookerId(booking.getBookerId())
+                        .build()));
+    }
+
+    private int importBatch(Map<Long, ItemDto> rows, User user, List<ItemImportResultDto.RowError> errors) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Set<Integer> requestIds = rows.values().stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        List<ItemImportResultDto.RowError> batchErrors = new ArrayList<>();
+        try {
+            Integer imported = transactionTemplate.execute(status -> {
+                Map<Integer, ItemRequest> itemRequests = requestIds.isEmpty() ? Map.of() : itemRequestRepository
+                        .findAllById(requestIds).stream()
+                        .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+                List<Item> items = new ArrayList<>(rows.size());
+                for (Map.Entry<Long, ItemDto> row : rows.entrySet()) {
+                    Item item = ItemMapper.fromDto(row.getValue());
+                    item.setOwner(user);
+                    Integer requestId = row.getValue().getRequestId();
+                    if (requestId != null) {
+                        ItemRequest itemRequest = itemRequests.get(requestId);
+                        if (itemRequest == null) {
+                            batchErrors.add(new ItemImportResultDto.RowError(row.getKey(), "Запрос не найден"));
+                            continue;
+                        }
+                        item.setItemRequest(itemRequest);
+                    }
+                    items.add(item);
+                }
+                itemBatchRepository.insertAll(items);
+                items.forEach(itemSearchEngine::index);
+                items.forEach(itemRequestFeed::putItem);
+                items.forEach(itemRequestSubscriptions::itemAttached);
+                return items.size();
+            });
+            errors.addAll(batchErrors);
+            return imported;
+        } catch (DataAccessException e) {
+            rows.keySet().forEach(rowLine -> errors.add(
+                    new ItemImportResultDto.RowError(rowLine, "Не удалось сохранить вещь")));
+            return 0;
+        }
+    }
+
+    private static String validateImportRow(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            return "Имя не должно быть пустым";
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            return "Описание не должно быть пустым";
+        }
+        if (itemDto.getAvailable() == null) {
+            return "Доступность должна быть явно указана";
+        }
+        return null;
     }
 }
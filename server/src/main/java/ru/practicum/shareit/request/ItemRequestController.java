@@ -1,7 +1,9 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestCreateResponseDto;
 import ru.practicum.shareit.request.dto.ItemRequestGetResponseDto;
@@ -35,6 +37,11 @@ public class ItemRequestController {
         return itemRequestService.getById(userId, itemRequestId);
     }
 
+    @GetMapping(value = "/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader("X-Sharer-User-Id") int userId) {
+        return itemRequestService.subscribe(userId);
+    }
+
     @PostMapping
     public ItemRequestCreateResponseDto create(@RequestHeader("X-Sharer-User-Id") int userId,
                                                @RequestBody ItemRequestCreateDto itemRequestCreateDto) {
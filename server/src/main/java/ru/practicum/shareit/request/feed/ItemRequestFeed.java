@@ -0,0 +1,243 @@
+package ru.practicum.shareit.request.feed;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestGetResponseDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+@Component
+public class ItemRequestFeed {
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final int capacity;
+    private final ConcurrentSkipListMap<Key, Entry> entries = new ConcurrentSkipListMap<>();
+    private final Map<Integer, Key> keys = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private volatile boolean truncated;
+
+    public ItemRequestFeed(ItemRequestRepository itemRequestRepository, ItemRepository itemRepository,
+                           @Value("${shareit.request.feed.enabled:false}") boolean enabled,
+                           @Value("${shareit.request.feed.capacity:1000}") int capacity) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+        this.capacity = capacity;
+    }
+
+    @Nullable
+    public List<ItemRequestGetResponseDto> page(int userId, int from, int size) {
+        if (!enabled) {
+            return null;
+        }
+        ensureLoaded();
+        int offset = from / size * size;
+        List<ItemRequestGetResponseDto> page = new ArrayList<>(size);
+        int skipped = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.requestorId == userId) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            page.add(entry.toDto());
+            if (page.size() == size) {
+                return page;
+            }
+        }
+        return truncated ? null : page;
+    }
+
+    public void add(ItemRequest itemRequest) {
+        if (!enabled) {
+            return;
+        }
+        Entry entry = Entry.of(itemRequest, List.of());
+        afterCommit(() -> put(entry));
+    }
+
+    public void putItem(Item item) {
+        if (!enabled || item.getItemRequest() == null) {
+            return;
+        }
+        int requestId = item.getItemRequest().getId();
+        ItemSnapshot snapshot = ItemSnapshot.of(item);
+        afterCommit(() -> putItem(requestId, snapshot));
+    }
+
+    public void removeItem(int itemId) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> remove(itemId));
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        keys.clear();
+        truncated = false;
+        loaded = false;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            List<ItemRequest> itemRequests = itemRequestRepository
+                    .findAllByOrderByCreatedDescIdDesc(PageRequest.of(0, capacity));
+            Map<Integer, List<ItemSnapshot>> itemsByRequestId = itemRequests.isEmpty() ? Map.of() : itemRepository
+                    .findAllByItemRequestIdIn(itemRequests.stream()
+                            .map(ItemRequest::getId)
+                            .collect(Collectors.toList())).stream()
+                    .collect(Collectors.groupingBy(item -> item.getItemRequest().getId(),
+                            Collectors.mapping(ItemSnapshot::of, Collectors.toList())));
+            for (ItemRequest itemRequest : itemRequests) {
+                Entry entry = Entry.of(itemRequest, itemsByRequestId.getOrDefault(itemRequest.getId(), List.of()));
+                entries.put(entry.key, entry);
+                keys.put(entry.key.id, entry.key);
+            }
+            truncated = itemRequests.size() == capacity;
+            loaded = true;
+        }
+    }
+
+    private synchronized void put(Entry entry) {
+        if (!loaded) {
+            return;
+        }
+        entries.put(entry.key, entry);
+        keys.put(entry.key.id, entry.key);
+        while (entries.size() > capacity) {
+            Key oldest = entries.pollLastEntry().getKey();
+            keys.remove(oldest.id);
+            truncated = true;
+        }
+    }
+
+    private synchronized void putItem(int requestId, ItemSnapshot item) {
+        Key key = keys.get(requestId);
+        if (key == null) {
+            return;
+        }
+        entries.computeIfPresent(key, (k, entry) -> entry.withItem(item));
+    }
+
+    private synchronized void remove(int itemId) {
+        for (Entry entry : entries.values()) {
+            if (entry.items.stream().anyMatch(item -> item.id == itemId)) {
+                entries.computeIfPresent(entry.key, (k, stored) -> stored.withoutItem(itemId));
+            }
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class Key implements Comparable<Key> {
+        private final LocalDateTime created;
+        private final int id;
+
+        @Override
+        public int compareTo(Key other) {
+            int result = other.created.compareTo(created);
+            return result != 0 ? result : Integer.compare(other.id, id);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final Key key;
+        private final int requestorId;
+        private final String description;
+        private final List<ItemSnapshot> items;
+
+        static Entry of(ItemRequest itemRequest, List<ItemSnapshot> items) {
+            return new Entry(new Key(itemRequest.getCreated(), itemRequest.getId()),
+                    itemRequest.getRequestor().getId(), itemRequest.getDescription(), List.copyOf(items));
+        }
+
+        Entry withItem(ItemSnapshot item) {
+            List<ItemSnapshot> updated = new ArrayList<>(items.size() + 1);
+            for (ItemSnapshot stored : items) {
+                if (stored.id != item.id) {
+                    updated.add(stored);
+                }
+            }
+            updated.add(item);
+            updated.sort(Comparator.comparingInt(stored -> stored.id));
+            return new Entry(key, requestorId, description, List.copyOf(updated));
+        }
+
+        Entry withoutItem(int itemId) {
+            return new Entry(key, requestorId, description, items.stream()
+                    .filter(item -> item.id != itemId)
+                    .collect(Collectors.toUnmodifiableList()));
+        }
+
+        ItemRequestGetResponseDto toDto() {
+            return ItemRequestGetResponseDto.builder()
+                    .id(key.id)
+                    .description(description)
+                    .created(key.created)
+                    .items(items.stream()
+                            .map(item -> item.toDto(key.id))
+                            .collect(Collectors.toList()))
+                    .build();
+        }
+    }
+
+    @AllArgsConstructor
+    private static class ItemSnapshot {
+        private final int id;
+        private final String name;
+        private final String description;
+        private final Boolean available;
+
+        static ItemSnapshot of(Item item) {
+            return new ItemSnapshot(item.getId(), item.getName(), item.getDescription(), item.getAvailable());
+        }
+
+        ItemRequestGetResponseDto.RequestedItem toDto(int requestId) {
+            return ItemRequestGetResponseDto.RequestedItem.builder()
+                    .id(id)
+                    .name(name)
+                    .description(description)
+                    .available(available)
+                    .requestId(requestId)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package ru.practicum.shareit.request.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestMapper;
+import ru.practicum.shareit.request.dto.ItemRequestGetResponseDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntPredicate;
+
+@Slf4j
+@Component
+public class ItemRequestSubscriptions {
+    private static final Event HEARTBEAT = new Event(null, null, null);
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+
+    public ItemRequestSubscriptions(ObjectMapper objectMapper,
+                                    @Value("${shareit.request.events.buffer-size:256}") int bufferSize,
+                                    @Value("${shareit.request.events.timeout:10m}") Duration timeout,
+                                    @Value("${shareit.request.events.heartbeat:15s}") Duration heartbeat,
+                                    @Value("${shareit.request.events.sender-threads:4}") int senderThreads) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("request-events-");
+        threadFactory.setDaemon(true);
+        this.senders = Executors.newFixedThreadPool(senderThreads, threadFactory);
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.heartbeats.scheduleAtFixedRate(() -> subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT)),
+                heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(int userId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public void requestCreated(ItemRequest itemRequest) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        ItemRequestGetResponseDto dto = ItemRequestMapper.toGetResponseDto(itemRequest);
+        dto.setItems(new ArrayList<>());
+        int requestorId = itemRequest.getRequestor().getId();
+        Event event = new Event("request", String.valueOf(itemRequest.getId()), toJson(dto));
+        afterCommit(() -> publish(event, userId -> userId != requestorId));
+    }
+
+    public void itemAttached(Item item) {
+        if (subscribers.isEmpty() || item.getItemRequest() == null) {
+            return;
+        }
+        ItemRequestGetResponseDto.RequestedItem dto = ItemRequestGetResponseDto.RequestedItem.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getItemRequest().getId())
+                .build();
+        Event event = new Event("item", String.valueOf(item.getId()), toJson(dto));
+        afterCommit(() -> publish(event, userId -> true));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void publish(Event event, IntPredicate recipients) {
+        for (Subscriber subscriber : subscribers) {
+            if (recipients.test(subscriber.userId)) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    private String toJson(Object dto) {
+        try {
+            return objectMapper.writeValueAsString(dto);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @AllArgsConstructor
+    private static class Event {
+        private final String name;
+        private final String id;
+        private final String data;
+
+        SseEmitter.SseEventBuilder toSse() {
+            if (data == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event()
+                    .name(name)
+                    .id(id)
+                    .data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    @AllArgsConstructor
+    private class Subscriber {
+        private final int userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        void offer(Event event) {
+            if (!queue.offer(event)) {
+                log.warn("Closing item request subscription of user {}: {} events are pending", userId, bufferSize);
+                subscribers.remove(this);
+                emitter.complete();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Event event;
+                while ((event = queue.poll()) != null) {
+                    emitter.send(event.toSse());
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+    }
+}
@@ -10,4 +10,6 @@ public interface ItemRequestRepository  extends JpaRepository<ItemRequest, Integ
     List<ItemRequest> findAllByRequestorIdNotOrderByCreatedDesc(int userId, Pageable pageable);
 
     List<ItemRequest> findAllByRequestorIdOrderByCreatedDesc(int requestorId, Pageable pageable);
+
+    List<ItemRequest> findAllByOrderByCreatedDescIdDesc(Pageable pageable);
 }
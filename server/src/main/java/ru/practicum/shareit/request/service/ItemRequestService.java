@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestCreateResponseDto;
 import ru.practicum.shareit.request.dto.ItemRequestGetResponseDto;
@@ -14,4 +15,6 @@ public interface ItemRequestService {
     ItemRequestGetResponseDto getById(int userId, int itemRequestId);
 
     ItemRequestCreateResponseDto create(ItemRequestCreateDto itemRequestCreateDto, int userId);
+
+    SseEmitter subscribe(int userId);
 }
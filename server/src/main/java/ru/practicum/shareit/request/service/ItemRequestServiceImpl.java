@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -11,50 +12,56 @@ import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestCreateResponseDto;
 import ru.practicum.shareit.request.dto.ItemRequestGetResponseDto;
+import ru.practicum.shareit.request.feed.ItemRequestFeed;
+import ru.practicum.shareit.request.feed.ItemRequestSubscriptions;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final ItemRepository itemRepository;
+    private final ItemRequestFeed itemRequestFeed;
+    private final ItemRequestSubscriptions itemRequestSubscriptions;
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestGetResponseDto> getAllByRequestorId(int userId, int from, int size) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
-        return itemRequestRepository
+        User user = userCache.get(userId);
+        return addItemsInfo(itemRequestRepository
                 .findAllByRequestorIdOrderByCreatedDesc(userId, PageRequest.of(from / size, size)).stream()
                 .map(ItemRequestMapper::toGetResponseDto)
-                .map(this::addItemsInfo)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestGetResponseDto> getAll(int userId, int from, int size) {
-        return itemRequestRepository
+        List<ItemRequestGetResponseDto> page = itemRequestFeed.page(userId, from, size);
+        if (page != null) {
+            return page;
+        }
+        return addItemsInfo(itemRequestRepository
                 .findAllByRequestorIdNotOrderByCreatedDesc(userId, PageRequest.of(from / size, size)).stream()
                 .map(ItemRequestMapper::toGetResponseDto)
-                .map(this::addItemsInfo)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
     @Transactional(readOnly = true)
     public ItemRequestGetResponseDto getById(int userId, int itemRequestId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        User user = userCache.get(userId);
         ItemRequest itemRequest = itemRequestRepository.findById(itemRequestId)
                 .orElseThrow(() -> new NotFoundException("Запрос не найден"));
         ItemRequestGetResponseDto responseDto = ItemRequestMapper.toGetResponseDto(itemRequest);
@@ -65,28 +72,57 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional
     public ItemRequestCreateResponseDto create(ItemRequestCreateDto itemRequestCreateDto, int userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+        User user = userCache.get(userId);
         ItemRequest itemRequest = ItemRequestMapper.fromDto(itemRequestCreateDto);
         itemRequest.setRequestor(user);
-        itemRequest.setCreated(LocalDateTime.now());
-        return ItemRequestMapper.toCreateResponseDto(itemRequestRepository.save(itemRequest));
+        itemRequest.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        ItemRequest saved = itemRequestRepository.save(itemRequest);
+        itemRequestFeed.add(saved);
+        itemRequestSubscriptions.requestCreated(saved);
+        return ItemRequestMapper.toCreateResponseDto(saved);
+    }
+
+    @Override
+    public SseEmitter subscribe(int userId) {
+        userCache.get(userId);
+        return itemRequestSubscriptions.subscribe(userId);
     }
 
     private ItemRequestGetResponseDto addItemsInfo(ItemRequestGetResponseDto itemRequestGetResponseDto) {
         List<Item> items = itemRepository.findAllByItemRequestId(itemRequestGetResponseDto.getId());
         itemRequestGetResponseDto.setItems(items.isEmpty() ? new ArrayList<>() :
                 items.stream()
-                        .map(item -> ItemRequestGetResponseDto.RequestedItem.builder()
-                                .id(item.getId())
-                                .name(item.getName())
-                                .description(item.getDescription())
-                                .available(item.getAvailable())
-                                .requestId(item.getItemRequest().getId())
-                                .build()
-                        )
+                        .map(this::toRequestedItem)
                         .collect(Collectors.toList())
         );
         return itemRequestGetResponseDto;
     }
+
+    private List<ItemRequestGetResponseDto> addItemsInfo(List<ItemRequestGetResponseDto> itemRequestGetResponseDtos) {
+        if (itemRequestGetResponseDtos.isEmpty()) {
+            return itemRequestGetResponseDtos;
+        }
+        List<Integer> requestIds = itemRequestGetResponseDtos.stream()
+                .map(ItemRequestGetResponseDto::getId)
+                .collect(Collectors.toList());
+        Map<Integer, List<ItemRequestGetResponseDto.RequestedItem>> itemsByRequestId = itemRepository
+                .findAllByItemRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(item -> item.getItemRequest().getId(),
+                        Collectors.mapping(this::toRequestedItem, Collectors.toList())));
+        for (ItemRequestGetResponseDto itemRequestGetResponseDto : itemRequestGetResponseDtos) {
+            itemRequestGetResponseDto.setItems(
+                    itemsByRequestId.getOrDefault(itemRequestGetResponseDto.getId(), new ArrayList<>()));
+        }
+        return itemRequestGetResponseDtos;
+    }
+
+    private ItemRequestGetResponseDto.RequestedItem toRequestedItem(Item item) {
+        return ItemRequestGetResponseDto.RequestedItem.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .requestId(item.getItemRequest().getId())
+                .build();
+    }
 }
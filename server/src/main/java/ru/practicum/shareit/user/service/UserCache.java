@@ -0,0 +1,84 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+@Component
+public class UserCache {
+    private final UserRepository userRepository;
+    private final Cache<Integer, Snapshot> cache;
+
+    public UserCache(UserRepository userRepository, MeterRegistry meterRegistry,
+                     @Value("${shareit.user-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${shareit.user-cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    public User get(int userId) {
+        Snapshot snapshot = cache.get(userId, id -> userRepository.findById(id)
+                .map(Snapshot::of)
+                .orElse(null));
+        if (snapshot == null) {
+            throw new NotFoundException("Пользователь не найден");
+        }
+        return snapshot.toUser();
+    }
+
+    public void invalidate(int userId) {
+        afterCommit(() -> cache.invalidate(userId));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @AllArgsConstructor
+    private static class Snapshot {
+        private final int id;
+        private final String name;
+        private final String email;
+
+        static Snapshot of(User user) {
+            return new Snapshot(user.getId(), user.getName(), user.getEmail());
+        }
+
+        User toUser() {
+            return User.builder()
+                    .id(id)
+                    .name(name)
+                    .email(email)
+                    .build();
+        }
+    }
+}
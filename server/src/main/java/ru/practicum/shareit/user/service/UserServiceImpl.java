@@ -22,12 +22,13 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Override
     public UserDto create(UserDto userDto) {
         User user = UserMapper.fromDto(userDto);
         try {
-            return UserMapper.toDto(userRepository.save(user));
+            return UserMapper.toDto(userRepository.saveAndFlush(user));
         } catch (DataIntegrityViolationException e) {
             throw new DataConflictException(e.getMessage());
         }
@@ -55,7 +56,9 @@ public class UserServiceImpl implements UserService {
         Optional.ofNullable(userDto.getName()).ifPresent(stored::setName);
         Optional.ofNullable(userDto.getEmail()).ifPresent(stored::setEmail);
         try {
-            return UserMapper.toDto(userRepository.save(stored));
+            User saved = userRepository.saveAndFlush(stored);
+            userCache.invalidate(userId);
+            return UserMapper.toDto(saved);
         } catch (DataIntegrityViolationException e) {
             throw new DataConflictException(e.getMessage());
         }
@@ -64,5 +67,6 @@ public class UserServiceImpl implements UserService {
     @Override
     public void delete(int userId) {
         userRepository.deleteById(userId);
+        userCache.invalidate(userId);
     }
 }
@@ -3,17 +3,31 @@ DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
 DROP TABLE IF EXISTS requests CASCADE;
+DROP TABLE IF EXISTS outbox CASCADE;
+DROP SEQUENCE IF EXISTS users_seq;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS bookings_seq;
+DROP SEQUENCE IF EXISTS comments_seq;
+DROP SEQUENCE IF EXISTS requests_seq;
+DROP SEQUENCE IF EXISTS outbox_seq;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS outbox_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users
 (
-    user_id   INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id   INT DEFAULT nextval('users_seq') PRIMARY KEY,
     user_name VARCHAR(255) NOT NULL,
     email     VARCHAR(512) NOT NULL UNIQUE
 );
 
 CREATE TABLE IF NOT EXISTS requests
 (
-    request_id          INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    request_id          INT DEFAULT nextval('requests_seq') PRIMARY KEY,
     request_description VARCHAR(1024)                  NOT NULL,
     requestor_id        INT REFERENCES users (user_id) NOT NULL,
     create_date         TIMESTAMP WITHOUT TIME ZONE    NOT NULL
@@ -21,7 +35,7 @@ CREATE TABLE IF NOT EXISTS requests
 
 CREATE TABLE IF NOT EXISTS items
 (
-    item_id     INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    item_id     INT DEFAULT nextval('items_seq') PRIMARY KEY,
     item_name   VARCHAR(255)                   NOT NULL,
     description VARCHAR(1024)                  NOT NULL,
     available   BOOLEAN                        NOT NULL,
@@ -31,19 +45,55 @@ CREATE TABLE IF NOT EXISTS items
 
 CREATE TABLE IF NOT EXISTS bookings
 (
-    booking_id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    booking_id INT DEFAULT nextval('bookings_seq') PRIMARY KEY,
     start_date TIMESTAMP WITHOUT TIME ZONE    NOT NULL,
     end_date   TIMESTAMP WITHOUT TIME ZONE    NOT NULL,
     item_id    INT REFERENCES items (item_id) NOT NULL,
     booker_id  INT REFERENCES users (user_id) NOT NULL,
-    status     VARCHAR(64)                    NOT NULL
+    status     VARCHAR(64)                    NOT NULL,
+    lifecycle  VARCHAR(16) DEFAULT 'UPCOMING' NOT NULL,
+    version    BIGINT DEFAULT 0               NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS comments
 (
-    comment_id   INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    comment_id   INT DEFAULT nextval('comments_seq') PRIMARY KEY,
     comment_text VARCHAR(1024)                  NOT NULL,
     item_id      INT REFERENCES items (item_id) NOT NULL,
     author_id    INT REFERENCES users (user_id) NOT NULL,
     created_date TIMESTAMP WITHOUT TIME ZONE    NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS outbox
+(
+    event_id     BIGINT DEFAULT nextval('outbox_seq') PRIMARY KEY,
+    event_type   VARCHAR(64)                 NOT NULL,
+    booking_id   INT                         NOT NULL,
+    item_id      INT                         NOT NULL,
+    booker_id    INT                         NOT NULL,
+    status       VARCHAR(64)                 NOT NULL,
+    start_date   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date     TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    created_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    attempts     INT     DEFAULT 0           NOT NULL,
+    dead_letter  BOOLEAN DEFAULT FALSE       NOT NULL,
+    last_error   VARCHAR(1024)
+);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, create_date DESC);
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (create_date DESC);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, item_id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, booking_id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC, booking_id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date DESC, booking_id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_lifecycle_start ON bookings (booker_id, lifecycle, start_date DESC, booking_id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_lifecycle_start ON bookings (item_id, lifecycle, start_date DESC, booking_id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_lifecycle_start ON bookings (lifecycle, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_lifecycle_end ON bookings (lifecycle, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+CREATE INDEX IF NOT EXISTS idx_comments_author ON comments (author_id);
@@ -0,0 +1,94 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class ContentVersionFilterTest {
+    private ItemRepository itemRepository;
+    private ContentVersionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+        filter = new ContentVersionFilter(itemRepository);
+    }
+
+    @Test
+    void notModifiedSkipsHandlerTest() throws Exception {
+        String etag = get("/requests/1", 1, null).getHeader(HttpHeaders.ETAG);
+        assertThat(etag, notNullValue());
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/requests/1", 1, etag), response, chain);
+
+        assertThat(response.getStatus(), equalTo(304));
+        assertThat(response.getContentLength(), equalTo(0));
+        assertThat(chain.getRequest(), nullValue());
+    }
+
+    @Test
+    void etagDependsOnUserTest() throws Exception {
+        String etag = get("/requests/all", 1, null).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse response = get("/requests/all", 2, etag);
+
+        assertThat(response.getStatus(), equalTo(200));
+        assertThat(response.getHeader(HttpHeaders.ETAG), not(equalTo(etag)));
+    }
+
+    @Test
+    void writeChangesEtagTest() throws Exception {
+        String etag = get("/items/search", 1, null).getHeader(HttpHeaders.ETAG);
+
+        filter.doFilter(request("POST", "/bookings", 2, null), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse response = get("/items/search", 1, etag);
+
+        assertThat(response.getStatus(), equalTo(200));
+        assertThat(response.getHeader(HttpHeaders.ETAG), not(equalTo(etag)));
+    }
+
+    @Test
+    void itemForNonOwnerIsVersionedTest() throws Exception {
+        when(itemRepository.existsByIdAndOwnerId(5, 1)).thenReturn(false);
+
+        assertThat(get("/items/5", 1, null).getHeader(HttpHeaders.ETAG), notNullValue());
+        verify(itemRepository).existsByIdAndOwnerId(5, 1);
+    }
+
+    @Test
+    void timeDependentViewsAreNotVersionedTest() throws Exception {
+        when(itemRepository.existsByIdAndOwnerId(5, 1)).thenReturn(true);
+
+        assertThat(get("/items/5", 1, null).getHeader(HttpHeaders.ETAG), nullValue());
+        assertThat(get("/items", 1, null).getHeader(HttpHeaders.ETAG), nullValue());
+        assertThat(get("/items/5/availability", 1, null).getHeader(HttpHeaders.ETAG), nullValue());
+        assertThat(get("/bookings/1", 1, null).getHeader(HttpHeaders.ETAG), nullValue());
+        verify(itemRepository).existsByIdAndOwnerId(5, 1);
+        verifyNoMoreInteractions(itemRepository);
+    }
+
+    private MockHttpServletResponse get(String path, int userId, String ifNoneMatch) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", path, userId, ifNoneMatch), response, new MockFilterChain());
+        return response;
+    }
+
+    private MockHttpServletRequest request(String method, String path, int userId, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.addHeader("X-Sharer-User-Id", userId);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+@UtilityClass
+public class PostgresTestSupport {
+    public static final String URL_VARIABLE = "SHAREIT_TEST_POSTGRES_URL";
+    public static final String ENABLED = "ru.practicum.shareit.PostgresTestSupport#isAvailable";
+
+    private static PostgreSQLContainer<?> container;
+
+    public static boolean isAvailable() {
+        return System.getenv(URL_VARIABLE) != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    public static void register(DynamicPropertyRegistry registry) {
+        String url = System.getenv(URL_VARIABLE);
+        if (url != null) {
+            registry.add("spring.datasource.url", () -> url);
+        } else {
+            PostgreSQLContainer<?> postgres = start();
+            registry.add("spring.datasource.url", postgres::getJdbcUrl);
+            registry.add("spring.datasource.username", postgres::getUsername);
+            registry.add("spring.datasource.password", postgres::getPassword);
+        }
+    }
+
+    private static synchronized PostgreSQLContainer<?> start() {
+        if (container == null) {
+            container = new PostgreSQLContainer<>("postgres:14-alpine");
+            container.start();
+        }
+        return container;
+    }
+}
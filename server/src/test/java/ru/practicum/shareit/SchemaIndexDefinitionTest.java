@@ -0,0 +1,86 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+@DataJpaTest
+public class SchemaIndexDefinitionTest {
+    private static final Pattern CREATE_INDEX = Pattern.compile("CREATE INDEX IF NOT EXISTS (\\w+) ON (\\w+)");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    static Stream<Arguments> indexes() {
+        return Stream.of(
+                arguments("idx_requests_requestor_created", "requests", List.of("requestor_id", "create_date DESC")),
+                arguments("idx_requests_created", "requests", List.of("create_date DESC")),
+                arguments("idx_items_owner", "items", List.of("owner_id", "item_id")),
+                arguments("idx_items_request", "items", List.of("request_id")),
+                arguments("idx_bookings_booker_start", "bookings",
+                        List.of("booker_id", "start_date DESC", "booking_id DESC")),
+                arguments("idx_bookings_booker_status_start", "bookings",
+                        List.of("booker_id", "status", "start_date DESC", "booking_id DESC")),
+                arguments("idx_bookings_item_start", "bookings",
+                        List.of("item_id", "start_date DESC", "booking_id DESC")),
+                arguments("idx_bookings_item_status_start", "bookings", List.of("item_id", "status", "start_date")),
+                arguments("idx_bookings_booker_lifecycle_start", "bookings",
+                        List.of("booker_id", "lifecycle", "start_date DESC", "booking_id DESC")),
+                arguments("idx_bookings_item_lifecycle_start", "bookings",
+                        List.of("item_id", "lifecycle", "start_date DESC", "booking_id DESC")),
+                arguments("idx_bookings_lifecycle_start", "bookings", List.of("lifecycle", "start_date")),
+                arguments("idx_bookings_lifecycle_end", "bookings", List.of("lifecycle", "end_date")),
+                arguments("idx_comments_item", "comments", List.of("item_id")),
+                arguments("idx_comments_author", "comments", List.of("author_id"))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("indexes")
+    void indexExistsTest(String index, String table, List<String> columns) {
+        List<String> actual = jdbcTemplate.query("SELECT c.COLUMN_NAME, c.ORDERING_SPECIFICATION " +
+                        "FROM INFORMATION_SCHEMA.INDEXES i " +
+                        "JOIN INFORMATION_SCHEMA.INDEX_COLUMNS c ON c.INDEX_SCHEMA = i.INDEX_SCHEMA " +
+                        "AND c.INDEX_NAME = i.INDEX_NAME " +
+                        "WHERE i.INDEX_NAME = ? AND i.TABLE_NAME = ? ORDER BY c.ORDINAL_POSITION",
+                (rs, rowNum) -> rs.getString(1).toLowerCase(Locale.ROOT)
+                        + ("DESC".equals(rs.getString(2)) ? " DESC" : ""),
+                index.toUpperCase(Locale.ROOT), table.toUpperCase(Locale.ROOT));
+
+        assertThat(actual).containsExactlyElementsOf(columns);
+    }
+
+    @Test
+    void everySchemaIndexIsCheckedTest() throws IOException {
+        String schema = StreamUtils.copyToString(new ClassPathResource("schema.sql").getInputStream(),
+                StandardCharsets.UTF_8);
+        List<String> declared = new ArrayList<>();
+        Matcher matcher = CREATE_INDEX.matcher(schema);
+        while (matcher.find()) {
+            declared.add(matcher.group(1));
+        }
+
+        assertThat(declared).containsExactlyInAnyOrderElementsOf(indexes()
+                .map(arguments -> (String) arguments.get()[0])
+                .collect(Collectors.toList()));
+    }
+}
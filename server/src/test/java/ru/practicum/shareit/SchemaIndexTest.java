@@ -0,0 +1,242 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.booking.model.BookingLifecycle;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.SchemaIndexTest$RecordingStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("default")
+@EnabledIf(PostgresTestSupport.ENABLED)
+public class SchemaIndexTest {
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+    private static final LocalDateTime NOW = LocalDateTime.now();
+    private static final List<Integer> IDS = List.of(1, 2, 3);
+    private static final String ITEM_START = "idx_bookings_item_start|idx_bookings_item_lifecycle_start";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        PostgresTestSupport.register(registry);
+    }
+
+    @BeforeEach
+    void fillTables() {
+        jdbcTemplate.update("INSERT INTO users (user_id, user_name, email) " +
+                "SELECT i, 'User ' || i, 'user' || i || '@user.com' FROM generate_series(1, 100) i");
+        jdbcTemplate.update("INSERT INTO requests (request_id, request_description, requestor_id, create_date) " +
+                "SELECT i, 'Request ' || i, i % 100 + 1, now() - i * INTERVAL '1 hour' FROM generate_series(1, 500) i");
+        jdbcTemplate.update("INSERT INTO items (item_id, item_name, description, available, owner_id, request_id) " +
+                "SELECT i, 'Item ' || i, 'Description ' || i, TRUE, i % 100 + 1, " +
+                "CASE WHEN i % 2 = 0 THEN i / 2 END FROM generate_series(1, 1000) i");
+        jdbcTemplate.update("INSERT INTO bookings (booking_id, start_date, end_date, item_id, booker_id, status, " +
+                "lifecycle) SELECT i, now() + (i / 1000 - 5) * INTERVAL '1 day', " +
+                "now() + (i / 1000 - 4) * INTERVAL '1 day', i % 1000 + 1, i % 100 + 1, " +
+                "CASE WHEN i % 3 = 0 THEN 'WAITING' ELSE 'APPROVED' END, " +
+                "CASE WHEN i / 1000 < 5 THEN 'FINISHED' WHEN i / 1000 = 5 THEN 'STARTED' ELSE 'UPCOMING' END " +
+                "FROM generate_series(1, 10000) i");
+        jdbcTemplate.update("INSERT INTO comments (comment_id, comment_text, item_id, author_id, created_date) " +
+                "SELECT i, 'Comment ' || i, i % 1000 + 1, i % 100 + 1, now() FROM generate_series(1, 2000) i");
+        jdbcTemplate.execute("ANALYZE users, requests, items, bookings, comments");
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void repositoryQueryUsesIndex(Consumer<SchemaIndexTest> query, List<String> indexes) {
+        List<String> statements = RecordingStatementInspector.STATEMENTS;
+        statements.clear();
+        query.accept(this);
+        String plan = explain(statements.get(statements.size() - 1));
+
+        for (String index : indexes) {
+            assertThat(plan).containsPattern("(using|on) (" + index + ") ");
+        }
+    }
+
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                query("BookingRepository.findAllByUserIdOrderByStartDesc",
+                        t -> t.bookingRepository.findAllByUserIdOrderByStartDesc(1, PAGE),
+                        "idx_bookings_booker_start"),
+                query("BookingRepository.findAllByUserIdAndEndBeforeOrderByStartDesc",
+                        t -> t.bookingRepository.findAllByUserIdAndEndBeforeOrderByStartDesc(1, NOW, PAGE),
+                        "idx_bookings_booker_start"),
+                query("BookingRepository.findAllByUserIdAndStartAfterOrderByStartDesc",
+                        t -> t.bookingRepository.findAllByUserIdAndStartAfterOrderByStartDesc(1, NOW, PAGE),
+                        "idx_bookings_booker_start"),
+                query("BookingRepository.findAllByUserIdAndStartBeforeAndEndAfterOrderByStartDesc",
+                        t -> t.bookingRepository.findAllByUserIdAndStartBeforeAndEndAfterOrderByStartDesc(1, NOW, NOW,
+                                PAGE),
+                        "idx_bookings_booker_start"),
+                query("BookingRepository.findAllByUserIdAndStatusOrderByStartDesc",
+                        t -> t.bookingRepository.findAllByUserIdAndStatusOrderByStartDesc(1, BookingStatus.WAITING,
+                                PAGE),
+                        "idx_bookings_booker_status_start"),
+                query("BookingRepository.findAllByUserIdAndLifecycleOrderByStartDesc",
+                        t -> t.bookingRepository.findAllByUserIdAndLifecycleOrderByStartDesc(1,
+                                BookingLifecycle.FINISHED, PAGE),
+                        "idx_bookings_booker_lifecycle_start"),
+                query("BookingRepository.findAllByItemOwnerIdOrderByStartDesc",
+                        t -> t.bookingRepository.findAllByItemOwnerIdOrderByStartDesc(1, PAGE),
+                        "idx_items_owner", ITEM_START),
+                query("BookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc",
+                        t -> t.bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(1, NOW, PAGE),
+                        "idx_items_owner", ITEM_START),
+                query("BookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc",
+                        t -> t.bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(1, NOW, PAGE),
+                        "idx_items_owner", ITEM_START),
+                query("BookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc",
+                        t -> t.bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(1, NOW,
+                                NOW, PAGE),
+                        "idx_items_owner", ITEM_START),
+                query("BookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc",
+                        t -> t.bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(1,
+                                BookingStatus.WAITING, PAGE),
+                        "idx_items_owner", "idx_bookings_item_status_start"),
+                query("BookingRepository.findAllByItemOwnerIdAndLifecycleOrderByStartDesc",
+                        t -> t.bookingRepository.findAllByItemOwnerIdAndLifecycleOrderByStartDesc(1,
+                                BookingLifecycle.STARTED, PAGE),
+                        "idx_items_owner", "idx_bookings_item_lifecycle_start"),
+                query("BookingRepository.findPageByUserId",
+                        t -> t.bookingRepository.findPageByUserId(1, NOW, 100, PAGE),
+                        "idx_bookings_booker_start"),
+                query("BookingRepository.findPageByUserIdAndStatus",
+                        t -> t.bookingRepository.findPageByUserIdAndStatus(1, BookingStatus.WAITING, NOW, 100, PAGE),
+                        "idx_bookings_booker_status_start"),
+                query("BookingRepository.findPageByUserIdAndLifecycle",
+                        t -> t.bookingRepository.findPageByUserIdAndLifecycle(1, BookingLifecycle.FINISHED, NOW, 100,
+                                PAGE),
+                        "idx_bookings_booker_lifecycle_start"),
+                query("BookingRepository.findPageByItemOwnerId",
+                        t -> t.bookingRepository.findPageByItemOwnerId(1, NOW, 100, PAGE),
+                        "idx_items_owner", ITEM_START),
+                query("BookingRepository.findNextApprovedByItemIdIn",
+                        t -> t.bookingRepository.findNextApprovedByItemIdIn(IDS, NOW),
+                        "idx_bookings_item_status_start"),
+                query("BookingRepository.findLastApprovedByItemIdIn",
+                        t -> t.bookingRepository.findLastApprovedByItemIdIn(IDS, NOW),
+                        "idx_bookings_item_status_start"),
+                query("BookingRepository.findAllApprovedByItemIdAndUserId",
+                        t -> t.bookingRepository.findAllApprovedByItemIdAndUserId(1, 1, NOW),
+                        "idx_bookings_item_status_start"),
+                query("BookingRepository.findStartingBetween",
+                        t -> t.bookingRepository.findStartingBetween(NOW, NOW.plusHours(1)),
+                        "idx_bookings_lifecycle_start"),
+                query("BookingRepository.findEndingBetween",
+                        t -> t.bookingRepository.findEndingBetween(NOW, NOW.plusHours(1)),
+                        "idx_bookings_lifecycle_end"),
+                query("ItemRepository.findAllByOwnerId",
+                        t -> t.itemRepository.findAllByOwnerId(1, PAGE),
+                        "idx_items_owner"),
+                query("ItemRepository.findAllByItemRequestId",
+                        t -> t.itemRepository.findAllByItemRequestId(1),
+                        "idx_items_request"),
+                query("ItemRepository.findAllByItemRequestIdIn",
+                        t -> t.itemRepository.findAllByItemRequestIdIn(IDS),
+                        "idx_items_request"),
+                query("CommentRepository.findAllByItemId",
+                        t -> t.commentRepository.findAllByItemId(1),
+                        "idx_comments_item"),
+                query("CommentRepository.findAllByItemIdIn",
+                        t -> t.commentRepository.findAllByItemIdIn(IDS),
+                        "idx_comments_item"),
+                query("ItemRequestRepository.findAllByRequestorIdOrderByCreatedDesc",
+                        t -> t.itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(1, PAGE),
+                        "idx_requests_requestor_created"),
+                query("ItemRequestRepository.findAllByRequestorIdNotOrderByCreatedDesc",
+                        t -> t.itemRequestRepository.findAllByRequestorIdNotOrderByCreatedDesc(1, PAGE),
+                        "idx_requests_created"),
+                query("ItemRequestRepository.findAllByOrderByCreatedDescIdDesc",
+                        t -> t.itemRequestRepository.findAllByOrderByCreatedDescIdDesc(PAGE),
+                        "idx_requests_created")
+        );
+    }
+
+    private static Arguments query(String name, Consumer<SchemaIndexTest> query, String... indexes) {
+        return arguments(Named.of(name, query), List.of(indexes));
+    }
+
+    private String explain(String sql) {
+        StringBuilder positional = new StringBuilder();
+        int parameters = 0;
+        boolean quoted = false;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '?' && !quoted) {
+                positional.append('$').append(++parameters);
+            } else {
+                positional.append(c);
+            }
+        }
+        List<String> nulls = new ArrayList<>();
+        for (int i = 0; i < parameters; i++) {
+            nulls.add("NULL");
+        }
+        jdbcTemplate.execute("PREPARE repository_query AS " + positional);
+        try {
+            String arguments = nulls.isEmpty() ? "" : "(" + String.join(", ", nulls) + ")";
+            return jdbcTemplate.queryForList("EXPLAIN EXECUTE repository_query" + arguments, String.class).stream()
+                    .collect(Collectors.joining("\n"));
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE repository_query");
+        }
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
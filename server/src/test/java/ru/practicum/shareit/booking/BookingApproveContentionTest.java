@@ -0,0 +1,166 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingNotWaitingForApprovalException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest
+public class BookingApproveContentionTest {
+    private static final int THREADS = 8;
+    private static final int BOOKINGS = 50;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void approveUnderContentionTest() throws Exception {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@contention.com").build());
+        List<Integer> bookingIds = createWaitingBookings(owner);
+
+        AtomicInteger decided = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long startedAt = System.nanoTime();
+            for (int bookingId : bookingIds) {
+                CyclicBarrier barrier = new CyclicBarrier(THREADS);
+                List<Future<?>> attempts = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    boolean approved = t % 2 == 0;
+                    attempts.add(executor.submit(() -> {
+                        barrier.await();
+                        try {
+                            bookingService.approve(bookingId, approved, owner.getId());
+                            decided.incrementAndGet();
+                        } catch (BookingNotWaitingForApprovalException e) {
+                            rejected.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> attempt : attempts) {
+                    attempt.get(10, TimeUnit.SECONDS);
+                }
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            log.info("{} approvals by {} concurrent owners took {} ms ({} attempts/s)", BOOKINGS, THREADS,
+                    elapsedMillis, BOOKINGS * THREADS * 1000L / Math.max(elapsedMillis, 1));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(decided.get()).isEqualTo(BOOKINGS);
+        assertThat(rejected.get()).isEqualTo(BOOKINGS * (THREADS - 1));
+        assertThat(bookingRepository.findAllById(bookingIds))
+                .allSatisfy(booking -> {
+                    assertThat(booking.getStatus()).isNotEqualTo(BookingStatus.WAITING);
+                    assertThat(booking.getVersion()).isEqualTo(1);
+                });
+    }
+
+    @Test
+    void approveBatchUnderContentionTest() throws Exception {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@contention.com").build());
+        List<Integer> bookingIds = createWaitingBookings(owner);
+
+        AtomicInteger decided = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CyclicBarrier barrier = new CyclicBarrier(THREADS);
+            List<Future<?>> attempts = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                boolean approved = t % 2 == 0;
+                List<BookingDecisionDto> decisions = bookingIds.stream()
+                        .map(bookingId -> BookingDecisionDto.builder().bookingId(bookingId).approved(approved).build())
+                        .collect(Collectors.toList());
+                attempts.add(executor.submit(() -> {
+                    barrier.await();
+                    for (BookingDecisionResultDto result : bookingService.approveBatch(decisions, owner.getId())) {
+                        if (result.getError() == null) {
+                            decided.incrementAndGet();
+                        } else {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> attempt : attempts) {
+                attempt.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(decided.get()).isEqualTo(BOOKINGS);
+        assertThat(rejected.get()).isEqualTo(BOOKINGS * (THREADS - 1));
+        assertThat(bookingRepository.findAllById(bookingIds))
+                .allSatisfy(booking -> {
+                    assertThat(booking.getStatus()).isNotEqualTo(BookingStatus.WAITING);
+                    assertThat(booking.getVersion()).isEqualTo(1);
+                });
+    }
+
+    private List<Integer> createWaitingBookings(User owner) {
+        User booker = userRepository.save(User.builder().name("Booker").email("booker@contention.com").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Item")
+                .description("Item")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Integer> bookingIds = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            bookingIds.add(bookingRepository.save(Booking.builder()
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(1))
+                    .item(item)
+                    .user(booker)
+                    .status(BookingStatus.WAITING)
+                    .build()).getId());
+        }
+        return bookingIds;
+    }
+}
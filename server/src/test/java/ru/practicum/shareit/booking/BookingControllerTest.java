@@ -7,20 +7,30 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.RequestBookingStatus;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotFoundException;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -99,6 +109,40 @@ public class BookingControllerTest {
         verifyNoMoreInteractions(bookingService);
     }
 
+    @Test
+    void getAllByStateAfterTest() throws Exception {
+        int userId = 1;
+        BookingCursor after = new BookingCursor(LocalDateTime.of(2030, 1, 1, 12, 0), 100);
+
+        BookingResponseDto responseDto = getBookingResponseDto(10);
+        responseDto.setStart(LocalDateTime.of(2029, 1, 1, 12, 0));
+
+        when(bookingService.getAllByStateAfter(any(), eq(userId), any(BookingCursor.class), anyInt()))
+                .thenReturn(List.of(responseDto));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("after", after.encode())
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(responseDto.getId()))
+                .andExpect(header().string(BookingController.NEXT_CURSOR_HEADER,
+                        BookingCursor.of(responseDto).encode()));
+
+        verify(bookingService, times(1)).getAllByStateAfter(eq(RequestBookingStatus.ALL), eq(userId), eq(after), eq(1));
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    void getAllByStateForOwnerAfterTest_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1)
+                        .param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+
     @Test
     void createTest() throws Exception {
         int userId = 1;
@@ -144,6 +188,83 @@ public class BookingControllerTest {
         verifyNoMoreInteractions(bookingService);
     }
 
+    @Test
+    void approveBatchTest() throws Exception {
+        int userId = 1;
+
+        List<BookingDecisionDto> decisions = List.of(
+                BookingDecisionDto.builder().bookingId(10).approved(true).build(),
+                BookingDecisionDto.builder().bookingId(11).approved(false).build()
+        );
+        List<BookingDecisionResultDto> results = List.of(
+                BookingDecisionResultDto.builder().bookingId(10).status(BookingStatus.APPROVED).build(),
+                BookingDecisionResultDto.builder().bookingId(11).error("Вещь не ожидает подтверждения").build()
+        );
+
+        when(bookingService.approveBatch(eq(decisions), eq(userId))).thenReturn(results);
+
+        mockMvc.perform(patch("/bookings/approve-batch")
+                        .header("X-Sharer-User-Id", userId)
+                        .content(objectMapper.writeValueAsString(decisions))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingId").value(10))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[1].bookingId").value(11))
+                .andExpect(jsonPath("$[1].error").value("Вещь не ожидает подтверждения"));
+
+        verify(bookingService, times(1)).approveBatch(eq(decisions), eq(userId));
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    void exportTest() throws Exception {
+        int userId = 1;
+
+        BookingResponseDto responseDto1 = getBookingResponseDto(10);
+        BookingResponseDto responseDto2 = getBookingResponseDto(11);
+
+        doAnswer(invocation -> {
+            Consumer<BookingResponseDto> consumer = invocation.getArgument(2);
+            consumer.accept(responseDto1);
+            consumer.accept(responseDto2);
+            return null;
+        }).when(bookingService).export(eq(userId), eq(true), any());
+
+        MvcResult result = mockMvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("owner", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", BookingController.NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(responseDto1) + "\n"
+                        + objectMapper.writeValueAsString(responseDto2) + "\n"));
+
+        verify(bookingService, times(1)).checkExport(eq(userId));
+        verify(bookingService, times(1)).export(eq(userId), eq(true), any());
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    void exportTest_UnknownUser() throws Exception {
+        int userId = 1;
+
+        doThrow(new NotFoundException("Пользователь не найден")).when(bookingService).checkExport(eq(userId));
+
+        mockMvc.perform(get("/bookings/export")
+                        .header("X-Sharer-User-Id", userId))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotFound());
+
+        verify(bookingService, times(1)).checkExport(eq(userId));
+        verifyNoMoreInteractions(bookingService);
+    }
+
     private BookingResponseDto getBookingResponseDto(int id) {
         return BookingResponseDto.builder()
                 .id(id)
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.BookingOverlapException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class BookingCreateContentionTest {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createUnderContentionTest() throws Exception {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@contention.com").build());
+        List<User> bookers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            bookers.add(userRepository.save(User.builder()
+                    .name("Booker" + t)
+                    .email("booker" + t + "@contention.com")
+                    .build()));
+        }
+        Item item = itemRepository.save(Item.builder()
+                .name("Item")
+                .description("Item")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                CyclicBarrier barrier = new CyclicBarrier(THREADS);
+                List<Future<?>> attempts = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    BookingRequestDto request = BookingRequestDto.builder()
+                            .itemId(item.getId())
+                            .start(start.plusDays(round).plusMinutes(t))
+                            .end(start.plusDays(round).plusHours(1).plusMinutes(t))
+                            .build();
+                    int bookerId = bookers.get(t).getId();
+                    attempts.add(executor.submit(() -> {
+                        barrier.await();
+                        try {
+                            bookingService.create(request, bookerId);
+                            created.incrementAndGet();
+                        } catch (BookingOverlapException e) {
+                            rejected.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> attempt : attempts) {
+                    attempt.get(10, TimeUnit.SECONDS);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(created.get()).isEqualTo(ROUNDS);
+        assertThat(rejected.get()).isEqualTo(ROUNDS * (THREADS - 1));
+        assertThat(bookingRepository.count()).isEqualTo(ROUNDS);
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.event.BookingOutboxDispatcher;
+import ru.practicum.shareit.booking.repository.BookingOutboxRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.timeline.BookingIntervalIndex;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "shareit.booking.outbox.enabled=true",
+        "shareit.booking.outbox.poll-interval=1h"
+})
+public class BookingIntervalIndexTest {
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Autowired
+    private BookingOutboxDispatcher bookingOutboxDispatcher;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingOutboxRepository bookingOutboxRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanUp() {
+        bookingOutboxRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void availabilityFollowsDispatchedEventsTest() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@index.com").build());
+        User booker = userRepository.save(User.builder().name("Booker").email("booker@index.com").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Item")
+                .description("Item")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime to = from.plusDays(10);
+
+        assertThat(bookingIntervalIndex.isEnabled()).isTrue();
+        assertThat(itemService.getAvailability(booker.getId(), item.getId(), from, to).getFree())
+                .containsExactly(new ItemAvailabilityDto.Interval(from, to));
+
+        int bookingId = bookingService.create(BookingRequestDto.builder()
+                .itemId(item.getId())
+                .start(from.plusDays(2))
+                .end(from.plusDays(3))
+                .build(), booker.getId()).getId();
+
+        assertThat(itemService.getAvailability(booker.getId(), item.getId(), from, to).getFree())
+                .containsExactly(new ItemAvailabilityDto.Interval(from, to));
+
+        bookingOutboxDispatcher.dispatch();
+
+        assertThat(itemService.getAvailability(booker.getId(), item.getId(), from, to).getFree())
+                .isEqualTo(List.of(
+                        new ItemAvailabilityDto.Interval(from, from.plusDays(2)),
+                        new ItemAvailabilityDto.Interval(from.plusDays(3), to)));
+
+        bookingService.approve(bookingId, false, owner.getId());
+        bookingOutboxDispatcher.dispatch();
+
+        assertThat(itemService.getAvailability(booker.getId(), item.getId(), from, to).getFree())
+                .containsExactly(new ItemAvailabilityDto.Interval(from, to));
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.RequestBookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class BookingListingQueryCountTest {
+    private static final int ITEMS = 10;
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAllInBatch();
+        itemRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        userCache.invalidateAll();
+    }
+
+    @Test
+    void listingPageQueryCountTest() {
+        User booker = userRepository.save(User.builder().name("Booker").email("booker@listing.com").build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < ITEMS; i++) {
+            User owner = userRepository.save(User.builder().name("Owner " + i).email("owner" + i + "@listing.com").build());
+            Item item = itemRepository.save(Item.builder()
+                    .name("Item " + i)
+                    .description("Item " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            for (int j = 0; j < PAGE_SIZE / ITEMS; j++) {
+                bookingRepository.save(Booking.builder()
+                        .start(start.plusDays(i * ITEMS + j))
+                        .end(start.plusDays(i * ITEMS + j).plusHours(1))
+                        .item(item)
+                        .user(booker)
+                        .status(BookingStatus.WAITING)
+                        .build());
+            }
+        }
+        userCache.get(booker.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<BookingResponseDto> page = bookingService.getAllByState(RequestBookingStatus.ALL, booker.getId(), 0, PAGE_SIZE);
+        long statements = statistics.getPrepareStatementCount();
+        log.info("Listing a page of {} bookings used {} prepared statements", page.size(), statements);
+
+        assertThat(page).hasSize(PAGE_SIZE);
+        assertThat(page).allSatisfy(booking -> assertThat(booking.getItem().getName()).startsWith("Item "));
+        assertThat(statements).isEqualTo(1);
+    }
+}
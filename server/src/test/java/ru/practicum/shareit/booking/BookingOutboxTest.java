@@ -0,0 +1,226 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.event.BookingOutboxDispatcher;
+import ru.practicum.shareit.booking.model.BookingOutboxEntry;
+import ru.practicum.shareit.booking.repository.BookingOutboxRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+public class BookingOutboxTest {
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingOutboxDispatcher bookingOutboxDispatcher;
+
+    @Autowired
+    private BookingOutboxRepository bookingOutboxRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private RecordingListener listener;
+
+    private User owner;
+    private User booker;
+    private Item item1;
+    private Item item2;
+
+    @BeforeEach
+    void setUp() {
+        bookingOutboxRepository.deleteAll();
+        listener.reset();
+        owner = userRepository.save(User.builder().name("Owner").email("owner@outbox.com").build());
+        booker = userRepository.save(User.builder().name("Booker").email("booker@outbox.com").build());
+        item1 = itemRepository.save(Item.builder().name("Item1").description("Item1").available(true).owner(owner).build());
+        item2 = itemRepository.save(Item.builder().name("Item2").description("Item2").available(true).owner(owner).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingOutboxRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void dispatchTest() {
+        int booking1 = book(item1, 1);
+        int booking2 = book(item2, 1);
+        bookingService.approve(booking1, true, owner.getId());
+
+        assertThat(bookingOutboxRepository.count()).isEqualTo(3);
+        assertThat(bookingOutboxDispatcher.dispatch()).isEqualTo(3);
+
+        assertThat(listener.events)
+                .extracting(BookingEvent::getType, BookingEvent::getBookingId, BookingEvent::getItemId)
+                .containsExactly(
+                        tuple(BookingEventType.CREATED, booking1, item1.getId()),
+                        tuple(BookingEventType.CREATED, booking2, item2.getId()),
+                        tuple(BookingEventType.APPROVED, booking1, item1.getId()));
+        assertThat(bookingOutboxRepository.count()).isZero();
+        assertThat(bookingOutboxDispatcher.dispatch()).isZero();
+    }
+
+    @Test
+    void dispatchTest_ListenerFailure() {
+        int booking1 = book(item1, 1);
+        int booking2 = book(item2, 1);
+        bookingService.approve(booking1, false, owner.getId());
+        listener.failOnce(item1.getId());
+
+        assertThat(bookingOutboxDispatcher.dispatch()).isEqualTo(1);
+        assertThat(listener.events)
+                .extracting(BookingEvent::getType, BookingEvent::getBookingId)
+                .containsExactly(tuple(BookingEventType.CREATED, booking2));
+        assertThat(bookingOutboxRepository.count()).isEqualTo(2);
+
+        assertThat(bookingOutboxDispatcher.dispatch()).isEqualTo(2);
+        assertThat(listener.events)
+                .extracting(BookingEvent::getType, BookingEvent::getBookingId)
+                .containsExactly(
+                        tuple(BookingEventType.CREATED, booking2),
+                        tuple(BookingEventType.CREATED, booking1),
+                        tuple(BookingEventType.REJECTED, booking1));
+        assertThat(bookingOutboxRepository.count()).isZero();
+    }
+
+    @Test
+    void dispatchTest_BlockedBatch() {
+        int booking1 = book(item1, 1);
+        bookingService.approve(booking1, false, owner.getId());
+        int booking2 = book(item2, 1);
+        listener.failOnce(item1.getId());
+        BookingOutboxDispatcher dispatcher = new BookingOutboxDispatcher(bookingOutboxRepository, eventPublisher,
+                new SimpleMeterRegistry(), false, Duration.ofMillis(200), 2, 10);
+
+        assertThat(dispatcher.dispatch()).isEqualTo(1);
+        assertThat(listener.events)
+                .extracting(BookingEvent::getType, BookingEvent::getBookingId)
+                .containsExactly(tuple(BookingEventType.CREATED, booking2));
+        assertThat(bookingOutboxRepository.count()).isEqualTo(2);
+
+        assertThat(dispatcher.dispatch()).isEqualTo(2);
+        assertThat(listener.events)
+                .extracting(BookingEvent::getType, BookingEvent::getBookingId)
+                .containsExactly(
+                        tuple(BookingEventType.CREATED, booking2),
+                        tuple(BookingEventType.CREATED, booking1),
+                        tuple(BookingEventType.REJECTED, booking1));
+        assertThat(bookingOutboxRepository.count()).isZero();
+    }
+
+    @Test
+    void dispatchTest_DeadLetter() {
+        int booking1 = book(item1, 1);
+        bookingService.approve(booking1, false, owner.getId());
+        BookingOutboxEntry created = bookingOutboxRepository.findAll(Sort.by("id")).get(0);
+        listener.failAlways(created.getId());
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BookingOutboxDispatcher dispatcher = new BookingOutboxDispatcher(bookingOutboxRepository, eventPublisher,
+                meterRegistry, false, Duration.ofMillis(200), 500, 2);
+
+        assertThat(dispatcher.dispatch()).isZero();
+        assertThat(listener.events).isEmpty();
+        assertThat(bookingOutboxRepository.findById(created.getId()).orElseThrow().isDeadLetter()).isFalse();
+
+        assertThat(dispatcher.dispatch()).isEqualTo(1);
+        assertThat(listener.events)
+                .extracting(BookingEvent::getType, BookingEvent::getBookingId)
+                .containsExactly(tuple(BookingEventType.REJECTED, booking1));
+        assertThat(bookingOutboxRepository.findAll())
+                .extracting(BookingOutboxEntry::getId, BookingOutboxEntry::getAttempts, BookingOutboxEntry::isDeadLetter)
+                .containsExactly(tuple(created.getId(), 2, true));
+        assertThat(bookingOutboxRepository.findById(created.getId()).orElseThrow().getLastError())
+                .contains("Listener failure");
+        assertThat(meterRegistry.get("shareit.booking.outbox.dead-lettered").counter().count()).isEqualTo(1);
+
+        assertThat(dispatcher.dispatch()).isZero();
+        assertThat(listener.events).hasSize(1);
+    }
+
+    private int book(Item item, int days) {
+        LocalDateTime start = LocalDateTime.now().plusDays(days);
+        return bookingService.create(BookingRequestDto.builder()
+                .itemId(item.getId())
+                .start(start)
+                .end(start.plusHours(1))
+                .build(), booker.getId()).getId();
+    }
+
+    @TestConfiguration
+    static class ListenerConfig {
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+
+    static class RecordingListener {
+        private final List<BookingEvent> events = new CopyOnWriteArrayList<>();
+        private final Set<Integer> failingItemIds = ConcurrentHashMap.newKeySet();
+        private final Set<Long> poisonedEventIds = ConcurrentHashMap.newKeySet();
+
+        @EventListener
+        public void on(BookingEvent event) {
+            if (failingItemIds.remove(event.getItemId()) || poisonedEventIds.contains(event.getEventId())) {
+                throw new IllegalStateException("Listener failure");
+            }
+            events.add(event);
+        }
+
+        void failOnce(int itemId) {
+            failingItemIds.add(itemId);
+        }
+
+        void failAlways(long eventId) {
+            poisonedEventIds.add(eventId);
+        }
+
+        void reset() {
+            events.clear();
+            failingItemIds.clear();
+            poisonedEventIds.clear();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.PostgresTestSupport;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("default")
+@EnabledIf(PostgresTestSupport.ENABLED)
+public class BookingOverlapConstraintTest {
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        PostgresTestSupport.register(registry);
+    }
+
+    @Test
+    void overlappingActiveBookingsAreRejected() {
+        LocalDateTime timestamp = LocalDateTime.now().withNano(0).plusDays(1);
+
+        User owner = testEntityManager.persist(User.builder().name("Owner").email("owner@user.com").build());
+        User booker = testEntityManager.persist(User.builder().name("Booker").email("booker@user.com").build());
+        Item item = testEntityManager.persist(Item.builder()
+                .name("Item")
+                .description("Item")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        bookingRepository.saveAndFlush(getBooking(timestamp, timestamp.plusDays(2), item, booker,
+                BookingStatus.APPROVED));
+        Booking rejected = bookingRepository.saveAndFlush(getBooking(timestamp.plusDays(1), timestamp.plusDays(3),
+                item, booker, BookingStatus.REJECTED));
+        Booking adjacent = bookingRepository.saveAndFlush(getBooking(timestamp.plusDays(2), timestamp.plusDays(3),
+                item, booker, BookingStatus.WAITING));
+
+        assertThat(rejected.getId()).isPositive();
+        assertThat(adjacent.getId()).isPositive();
+        assertThrows(DataIntegrityViolationException.class, () -> bookingRepository.saveAndFlush(
+                getBooking(timestamp.plusDays(1), timestamp.plusDays(2), item, booker, BookingStatus.WAITING)));
+    }
+
+    private Booking getBooking(LocalDateTime start, LocalDateTime end, Item item, User booker, BookingStatus status) {
+        return Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .user(booker)
+                .status(status)
+                .build();
+    }
+}
@@ -4,16 +4,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingLifecycle;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
 
-import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
 @Transactional
@@ -108,4 +115,247 @@ public class BookingRepositoryTest {
 
         assertThat(bookingRepository.findAllApprovedByItemIdAndUserId(item1.getId(), booker1.getId(), timestamp)).size().isEqualTo(2);
     }
+
+    @Test
+    public void findNextAndLastApprovedByItemIdInTest() {
+        LocalDateTime timestamp = LocalDateTime.now();
+
+        User owner = testEntityManager.persist(User.builder()
+                .name("Owner")
+                .email("owner@user.com")
+                .build());
+
+        User booker = testEntityManager.persist(User.builder()
+                .name("Booker")
+                .email("booker@user.com")
+                .build());
+
+        Item item1 = testEntityManager.persist(Item.builder()
+                .name("Item1")
+                .description("Item1")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        Item item2 = testEntityManager.persist(Item.builder()
+                .name("Item2")
+                .description("Item2")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        Booking oldBooking = testEntityManager.persist(getBooking(timestamp.minusDays(3), timestamp.minusDays(2),
+                item1, booker, BookingStatus.APPROVED));
+        Booking lastBooking = testEntityManager.persist(getBooking(timestamp.minusDays(1), timestamp.minusHours(1),
+                item1, booker, BookingStatus.APPROVED));
+        testEntityManager.persist(getBooking(timestamp.minusHours(3), timestamp.minusHours(2),
+                item1, booker, BookingStatus.REJECTED));
+        Booking nextBooking = testEntityManager.persist(getBooking(timestamp.plusDays(1), timestamp.plusDays(2),
+                item1, booker, BookingStatus.APPROVED));
+        testEntityManager.persist(getBooking(timestamp.plusDays(3), timestamp.plusDays(4),
+                item1, booker, BookingStatus.APPROVED));
+        testEntityManager.persist(getBooking(timestamp.plusHours(1), timestamp.plusHours(2),
+                item1, booker, BookingStatus.WAITING));
+        testEntityManager.flush();
+
+        List<ItemBookingView> next = bookingRepository.findNextApprovedByItemIdIn(List.of(item1.getId(), item2.getId()), timestamp);
+        List<ItemBookingView> last = bookingRepository.findLastApprovedByItemIdIn(List.of(item1.getId(), item2.getId()), timestamp);
+
+        assertThat(next).size().isEqualTo(1);
+        assertThat(next.get(0).getId()).isEqualTo(nextBooking.getId());
+        assertThat(next.get(0).getItemId()).isEqualTo(item1.getId());
+        assertThat(next.get(0).getBookerId()).isEqualTo(booker.getId());
+        assertThat(last).size().isEqualTo(1);
+        assertThat(last.get(0).getId()).isEqualTo(lastBooking.getId());
+        assertThat(last.get(0).getId()).isNotEqualTo(oldBooking.getId());
+    }
+
+    @Test
+    public void findPageByUserIdTest() {
+        LocalDateTime timestamp = LocalDateTime.now().withNano(0);
+
+        User owner = testEntityManager.persist(User.builder()
+                .name("Owner")
+                .email("owner@user.com")
+                .build());
+
+        User booker = testEntityManager.persist(User.builder()
+                .name("Booker")
+                .email("booker@user.com")
+                .build());
+
+        Item item = testEntityManager.persist(Item.builder()
+                .name("Item")
+                .description("Item")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        Booking booking1 = testEntityManager.persist(getBooking(timestamp.plusDays(3), timestamp.plusDays(4),
+                item, booker, BookingStatus.APPROVED));
+        Booking booking2 = testEntityManager.persist(getBooking(timestamp.plusDays(2), timestamp.plusDays(3),
+                item, booker, BookingStatus.WAITING));
+        Booking booking3 = testEntityManager.persist(getBooking(timestamp.plusDays(2), timestamp.plusDays(3),
+                item, booker, BookingStatus.APPROVED));
+        Booking booking4 = testEntityManager.persist(getBooking(timestamp.plusDays(1), timestamp.plusDays(2),
+                item, booker, BookingStatus.WAITING));
+
+        Pageable pageable = PageRequest.of(0, 2);
+
+        List<Booking> page = bookingRepository.findPageByUserId(booker.getId(), booking1.getStart(), booking1.getId(), pageable);
+        assertThat(page).extracting(Booking::getId).containsExactly(booking3.getId(), booking2.getId());
+
+        page = bookingRepository.findPageByUserId(booker.getId(), booking2.getStart(), booking2.getId(), pageable);
+        assertThat(page).extracting(Booking::getId).containsExactly(booking4.getId());
+
+        page = bookingRepository.findPageByItemOwnerIdAndStatus(owner.getId(), BookingStatus.WAITING,
+                booking1.getStart(), booking1.getId(), pageable);
+        assertThat(page).extracting(Booking::getId).containsExactly(booking2.getId(), booking4.getId());
+    }
+
+    @Test
+    public void existsOverlappingTest() {
+        LocalDateTime timestamp = LocalDateTime.now().withNano(0);
+
+        User owner = testEntityManager.persist(User.builder()
+                .name("Owner")
+                .email("owner@user.com")
+                .build());
+
+        User booker = testEntityManager.persist(User.builder()
+                .name("Booker")
+                .email("booker@user.com")
+                .build());
+
+        Item item = testEntityManager.persist(Item.builder()
+                .name("Item")
+                .description("Item")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        testEntityManager.persist(getBooking(timestamp.plusDays(1), timestamp.plusDays(2),
+                item, booker, BookingStatus.APPROVED));
+        testEntityManager.persist(getBooking(timestamp.plusDays(3), timestamp.plusDays(4),
+                item, booker, BookingStatus.REJECTED));
+        testEntityManager.persist(getBooking(timestamp.plusDays(5), timestamp.plusDays(6),
+                item, booker, BookingStatus.WAITING));
+
+        assertThat(bookingRepository.existsOverlapping(item.getId(), BookingStatus.ACTIVE,
+                timestamp, timestamp.plusDays(1))).isFalse();
+        assertThat(bookingRepository.existsOverlapping(item.getId(), BookingStatus.ACTIVE,
+                timestamp.plusHours(36), timestamp.plusDays(3))).isTrue();
+        assertThat(bookingRepository.existsOverlapping(item.getId(), BookingStatus.ACTIVE,
+                timestamp.plusDays(2), timestamp.plusDays(5))).isFalse();
+        assertThat(bookingRepository.existsOverlapping(item.getId(), BookingStatus.ACTIVE,
+                timestamp.plusDays(4), timestamp.plusDays(7))).isTrue();
+        assertThat(bookingRepository.findIntervalsByItemId(item.getId(), BookingStatus.ACTIVE, timestamp))
+                .extracting(BookingIntervalView::getStatus)
+                .containsExactly(BookingStatus.APPROVED, BookingStatus.WAITING);
+    }
+
+    @Test
+    public void streamAllByUserIdTest() {
+        LocalDateTime timestamp = LocalDateTime.now().withNano(0);
+
+        User owner = testEntityManager.persist(User.builder()
+                .name("Owner")
+                .email("owner@user.com")
+                .build());
+
+        User booker = testEntityManager.persist(User.builder()
+                .name("Booker")
+                .email("booker@user.com")
+                .build());
+
+        Item item = testEntityManager.persist(Item.builder()
+                .name("Item")
+                .description("Item")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        Booking booking1 = testEntityManager.persist(getBooking(timestamp.plusDays(1), timestamp.plusDays(2),
+                item, booker, BookingStatus.APPROVED));
+        Booking booking2 = testEntityManager.persist(getBooking(timestamp.plusDays(3), timestamp.plusDays(4),
+                item, booker, BookingStatus.WAITING));
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        try (Stream<Booking> bookings = bookingRepository.streamAllByUserId(booker.getId())) {
+            assertThat(bookings).extracting(Booking::getId).containsExactly(booking2.getId(), booking1.getId());
+        }
+        try (Stream<Booking> bookings = bookingRepository.streamAllByItemOwnerId(owner.getId())) {
+            assertThat(bookings).extracting(booking -> booking.getItem().getOwner().getId())
+                    .containsExactly(owner.getId(), owner.getId());
+        }
+        try (Stream<Booking> bookings = bookingRepository.streamAllByUserId(owner.getId())) {
+            assertThat(bookings).isEmpty();
+        }
+    }
+
+    @Test
+    public void lifecycleTest() {
+        LocalDateTime timestamp = LocalDateTime.now().withNano(0);
+
+        User owner = testEntityManager.persist(User.builder()
+                .name("Owner")
+                .email("owner@user.com")
+                .build());
+
+        User booker = testEntityManager.persist(User.builder()
+                .name("Booker")
+                .email("booker@user.com")
+                .build());
+
+        Item item = testEntityManager.persist(Item.builder()
+                .name("Item")
+                .description("Item")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        Booking past = testEntityManager.persist(getBooking(timestamp.minusDays(2), timestamp.minusDays(1),
+                item, booker, BookingStatus.APPROVED));
+        Booking current = testEntityManager.persist(getBooking(timestamp.minusHours(1), timestamp.plusHours(1),
+                item, booker, BookingStatus.APPROVED));
+        Booking future = testEntityManager.persist(getBooking(timestamp.plusHours(2), timestamp.plusHours(3),
+                item, booker, BookingStatus.WAITING));
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        Pageable pageable = PageRequest.of(0, 10);
+        assertThat(bookingRepository.findAllByUserIdAndLifecycleOrderByStartDesc(booker.getId(),
+                BookingLifecycle.FINISHED, pageable)).extracting(Booking::getId).containsExactly(past.getId());
+        assertThat(bookingRepository.findAllByItemOwnerIdAndLifecycleOrderByStartDesc(owner.getId(),
+                BookingLifecycle.STARTED, pageable)).extracting(Booking::getId).containsExactly(current.getId());
+        assertThat(bookingRepository.findPageByUserIdAndLifecycle(booker.getId(), BookingLifecycle.UPCOMING,
+                timestamp.plusDays(1), 0, pageable)).extracting(Booking::getId).containsExactly(future.getId());
+
+        assertThat(bookingRepository.findStartingBetween(timestamp, timestamp.plusHours(2)))
+                .extracting(BookingIntervalView::getId).containsExactly(future.getId());
+        assertThat(bookingRepository.findEndingBetween(timestamp, timestamp.plusHours(3)))
+                .extracting(BookingIntervalView::getId).containsExactlyInAnyOrder(current.getId(), future.getId());
+
+        LocalDateTime later = timestamp.plusMinutes(150);
+        assertThat(bookingRepository.markStarted(List.of(current.getId(), future.getId()), later)).isEqualTo(1);
+        assertThat(bookingRepository.markFinished(List.of(current.getId(), future.getId()), later)).isEqualTo(1);
+        assertThat(bookingRepository.markAllStarted(later)).isZero();
+        assertThat(bookingRepository.markAllFinished(timestamp.plusDays(1))).isEqualTo(1);
+        testEntityManager.clear();
+
+        assertThat(bookingRepository.findAllByUserIdAndLifecycleOrderByStartDesc(booker.getId(),
+                BookingLifecycle.FINISHED, pageable)).extracting(Booking::getId)
+                .containsExactly(future.getId(), current.getId(), past.getId());
+    }
+
+    private Booking getBooking(LocalDateTime start, LocalDateTime end, Item item, User booker, BookingStatus status) {
+        return Booking.builder()
+                .start(start)
+                .end(end)
+                .item(item)
+                .user(booker)
+                .status(status)
+                .build();
+    }
 }
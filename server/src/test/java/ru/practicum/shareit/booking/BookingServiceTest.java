@@ -1,15 +1,27 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.dto.RequestBookingStatus;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.lifecycle.BookingLifecycleScheduler;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingLifecycle;
+import ru.practicum.shareit.booking.model.BookingOutboxEntry;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingOutboxRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.*;
@@ -17,16 +29,22 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -41,9 +59,23 @@ public class BookingServiceTest {
     @MockBean
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
     @MockBean
     private ItemRepository itemRepository;
 
+    @MockBean
+    private BookingOutboxRepository bookingOutboxRepository;
+
+    @MockBean
+    private BookingLifecycleScheduler bookingLifecycleScheduler;
+
+    @BeforeEach
+    void setUp() {
+        userCache.invalidateAll();
+    }
+
     @Test
     void getByIdTest() {
         User owner = getUser(1);
@@ -132,7 +164,7 @@ public class BookingServiceTest {
         assertThat(responseDtoList.get(0).getId(), equalTo(booking1.getId()));
         assertThat(responseDtoList.get(1).getId(), equalTo(booking2.getId()));
 
-        verify(userRepository, times(6)).findById(eq(booker.getId()));
+        verify(userRepository, times(1)).findById(eq(booker.getId()));
         verify(bookingRepository, times(1)).findAllByUserIdOrderByStartDesc(eq(booker.getId()), any(Pageable.class));
         verify(bookingRepository, times(1)).findAllByUserIdAndEndBeforeOrderByStartDesc(eq(booker.getId()), any(LocalDateTime.class), any(Pageable.class));
         verify(bookingRepository, times(1)).findAllByUserIdAndStartAfterOrderByStartDesc(eq(booker.getId()), any(LocalDateTime.class), any(Pageable.class));
@@ -184,7 +216,7 @@ public class BookingServiceTest {
         assertThat(responseDtoList.get(0).getId(), equalTo(booking1.getId()));
         assertThat(responseDtoList.get(1).getId(), equalTo(booking2.getId()));
 
-        verify(userRepository, times(6)).findById(eq(owner.getId()));
+        verify(userRepository, times(1)).findById(eq(owner.getId()));
         verify(bookingRepository, times(1)).findAllByItemOwnerIdOrderByStartDesc(eq(owner.getId()), any(Pageable.class));
         verify(bookingRepository, times(1)).findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(eq(owner.getId()), any(LocalDateTime.class), any(Pageable.class));
         verify(bookingRepository, times(1)).findAllByItemOwnerIdAndStartAfterOrderByStartDesc(eq(owner.getId()), any(LocalDateTime.class), any(Pageable.class));
@@ -195,6 +227,94 @@ public class BookingServiceTest {
         verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
     }
 
+    @Test
+    void getAllByStateAfterTest() {
+        User owner = getUser(1);
+        User booker = getUser(2);
+
+        Item item = getItem(10, owner);
+
+        Booking booking = getBooking(100, booker, item);
+        booking.setStart(LocalDateTime.now().minusDays(10));
+        booking.setEnd(LocalDateTime.now().minusDays(9));
+
+        BookingCursor after = new BookingCursor(LocalDateTime.now().minusDays(5), 200);
+
+        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.ofNullable(booker));
+        when(bookingRepository.findPageByUserId(eq(booker.getId()), eq(after.getStart()), eq(after.getId()), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findPageByUserIdAndStatus(eq(booker.getId()), eq(BookingStatus.WAITING), eq(after.getStart()), eq(after.getId()), any(Pageable.class))).thenReturn(List.of(booking));
+
+        List<BookingResponseDto> responseDtoList = bookingService.getAllByStateAfter(RequestBookingStatus.ALL, booker.getId(), after, 10);
+        bookingService.getAllByStateAfter(RequestBookingStatus.WAITING, booker.getId(), after, 10);
+
+        assertThat(responseDtoList.size(), equalTo(1));
+        assertThat(responseDtoList.get(0).getId(), equalTo(booking.getId()));
+
+        verify(userRepository, times(1)).findById(eq(booker.getId()));
+        verify(bookingRepository, times(1)).findPageByUserId(eq(booker.getId()), eq(after.getStart()), eq(after.getId()), eq(PageRequest.of(0, 10)));
+        verify(bookingRepository, times(1)).findPageByUserIdAndStatus(eq(booker.getId()), eq(BookingStatus.WAITING), eq(after.getStart()), eq(after.getId()), eq(PageRequest.of(0, 10)));
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+    }
+
+    @Test
+    void getAllByStateForOwnerAfterTest() {
+        User owner = getUser(1);
+        User booker = getUser(2);
+
+        Item item = getItem(10, owner);
+
+        Booking booking = getBooking(100, booker, item);
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        booking.setEnd(LocalDateTime.now().plusDays(2));
+
+        BookingCursor after = new BookingCursor(LocalDateTime.now().plusDays(5), 200);
+
+        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.ofNullable(owner));
+        when(bookingRepository.findFuturePageByItemOwnerId(eq(owner.getId()), any(LocalDateTime.class), eq(after.getStart()), eq(after.getId()), any(Pageable.class))).thenReturn(List.of(booking));
+
+        List<BookingResponseDto> responseDtoList = bookingService.getAllByStateForOwnerAfter(RequestBookingStatus.FUTURE, owner.getId(), after, 10);
+
+        assertThat(responseDtoList.size(), equalTo(1));
+        assertThat(responseDtoList.get(0).getId(), equalTo(booking.getId()));
+
+        verify(userRepository, times(1)).findById(eq(owner.getId()));
+        verify(bookingRepository, times(1)).findFuturePageByItemOwnerId(eq(owner.getId()), any(LocalDateTime.class), eq(after.getStart()), eq(after.getId()), eq(PageRequest.of(0, 10)));
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+    }
+
+    @Test
+    void getAllByStateTest_Lifecycle() {
+        User owner = getUser(1);
+        User booker = getUser(2);
+
+        Item item = getItem(10, owner);
+
+        Booking booking = getBooking(100, booker, item);
+
+        BookingCursor after = new BookingCursor(LocalDateTime.now().plusDays(5), 200);
+
+        when(bookingLifecycleScheduler.isEnabled()).thenReturn(true);
+        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.ofNullable(booker));
+        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.ofNullable(owner));
+        when(bookingRepository.findAllByUserIdAndLifecycleOrderByStartDesc(eq(booker.getId()), eq(BookingLifecycle.FINISHED), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByItemOwnerIdAndLifecycleOrderByStartDesc(eq(owner.getId()), eq(BookingLifecycle.STARTED), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findPageByUserIdAndLifecycle(eq(booker.getId()), eq(BookingLifecycle.UPCOMING), eq(after.getStart()), eq(after.getId()), any(Pageable.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findAllByUserIdAndStatusOrderByStartDesc(eq(booker.getId()), eq(BookingStatus.WAITING), any(Pageable.class))).thenReturn(List.of(booking));
+
+        assertThat(bookingService.getAllByState(RequestBookingStatus.PAST, booker.getId(), 0, 10).size(), equalTo(1));
+        assertThat(bookingService.getAllByStateForOwner(RequestBookingStatus.CURRENT, owner.getId(), 0, 10).size(), equalTo(1));
+        assertThat(bookingService.getAllByStateAfter(RequestBookingStatus.FUTURE, booker.getId(), after, 10).size(), equalTo(1));
+        assertThat(bookingService.getAllByState(RequestBookingStatus.WAITING, booker.getId(), 0, 10).size(), equalTo(1));
+
+        verify(userRepository, times(1)).findById(eq(booker.getId()));
+        verify(userRepository, times(1)).findById(eq(owner.getId()));
+        verify(bookingRepository, times(1)).findAllByUserIdAndLifecycleOrderByStartDesc(eq(booker.getId()), eq(BookingLifecycle.FINISHED), any(Pageable.class));
+        verify(bookingRepository, times(1)).findAllByItemOwnerIdAndLifecycleOrderByStartDesc(eq(owner.getId()), eq(BookingLifecycle.STARTED), any(Pageable.class));
+        verify(bookingRepository, times(1)).findPageByUserIdAndLifecycle(eq(booker.getId()), eq(BookingLifecycle.UPCOMING), eq(after.getStart()), eq(after.getId()), eq(PageRequest.of(0, 10)));
+        verify(bookingRepository, times(1)).findAllByUserIdAndStatusOrderByStartDesc(eq(booker.getId()), eq(BookingStatus.WAITING), any(Pageable.class));
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+    }
+
     @Test
     void getAllByStateTest_UnknownStatus() {
         User booker = getUser(2);
@@ -237,8 +357,9 @@ public class BookingServiceTest {
                 .build();
 
         when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.ofNullable(booker));
-        when(itemRepository.findById(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(itemRepository.findForUpdateById(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
+        when(bookingRepository.existsOverlapping(eq(item.getId()), eq(BookingStatus.ACTIVE), any(), any())).thenReturn(false);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(booking);
 
         BookingResponseDto responseDto = bookingService.create(requestDto, booker.getId());
 
@@ -249,8 +370,86 @@ public class BookingServiceTest {
         assertThat(responseDto.getItem().getName(), equalTo(item.getName()));
 
         verify(userRepository, times(1)).findById(eq(booker.getId()));
-        verify(itemRepository, times(1)).findById(eq(item.getId()));
-        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(itemRepository, times(1)).findForUpdateById(eq(item.getId()));
+        verify(bookingRepository, times(1)).existsOverlapping(eq(item.getId()), eq(BookingStatus.ACTIVE), any(), any());
+        verify(bookingRepository, times(1)).saveAndFlush(any(Booking.class));
+        verify(bookingOutboxRepository, times(1)).save(argThat(entry -> entry.getType() == BookingEventType.CREATED
+                && entry.getBookingId() == booking.getId() && entry.getItemId() == item.getId()));
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+    }
+
+    @Test
+    void createTest_Overlap() {
+        User owner = getUser(1);
+        User booker = getUser(2);
+
+        Item item = getItem(10, owner);
+
+        BookingRequestDto requestDto = BookingRequestDto.builder()
+                .itemId(item.getId())
+                .build();
+
+        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.ofNullable(booker));
+        when(itemRepository.findForUpdateById(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
+        when(bookingRepository.existsOverlapping(eq(item.getId()), eq(BookingStatus.ACTIVE), any(), any())).thenReturn(true);
+
+        BookingOverlapException e = assertThrows(BookingOverlapException.class, () -> {
+            bookingService.create(requestDto, booker.getId());
+        });
+
+        verify(userRepository, times(1)).findById(eq(booker.getId()));
+        verify(itemRepository, times(1)).findForUpdateById(eq(item.getId()));
+        verify(bookingRepository, times(1)).existsOverlapping(eq(item.getId()), eq(BookingStatus.ACTIVE), any(), any());
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+    }
+
+    @Test
+    void createTest_OverlapConstraint() {
+        User owner = getUser(1);
+        User booker = getUser(2);
+
+        Item item = getItem(10, owner);
+
+        BookingRequestDto requestDto = BookingRequestDto.builder()
+                .itemId(item.getId())
+                .build();
+
+        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.ofNullable(booker));
+        when(itemRepository.findForUpdateById(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
+        when(bookingRepository.existsOverlapping(eq(item.getId()), eq(BookingStatus.ACTIVE), any(), any())).thenReturn(false);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(getViolation("bookings_no_overlap", "23P01"));
+
+        assertThrows(BookingOverlapException.class, () -> bookingService.create(requestDto, booker.getId()));
+
+        verify(userRepository, times(1)).findById(eq(booker.getId()));
+        verify(itemRepository, times(1)).findForUpdateById(eq(item.getId()));
+        verify(bookingRepository, times(1)).existsOverlapping(eq(item.getId()), eq(BookingStatus.ACTIVE), any(), any());
+        verify(bookingRepository, times(1)).saveAndFlush(any(Booking.class));
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+    }
+
+    @Test
+    void createTest_OtherConstraint() {
+        User owner = getUser(1);
+        User booker = getUser(2);
+
+        Item item = getItem(10, owner);
+
+        BookingRequestDto requestDto = BookingRequestDto.builder()
+                .itemId(item.getId())
+                .build();
+
+        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.ofNullable(booker));
+        when(itemRepository.findForUpdateById(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
+        when(bookingRepository.existsOverlapping(eq(item.getId()), eq(BookingStatus.ACTIVE), any(), any())).thenReturn(false);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(getViolation("bookings_booker_id_fkey", "23503"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.create(requestDto, booker.getId()));
+
+        verify(userRepository, times(1)).findById(eq(booker.getId()));
+        verify(itemRepository, times(1)).findForUpdateById(eq(item.getId()));
+        verify(bookingRepository, times(1)).existsOverlapping(eq(item.getId()), eq(BookingStatus.ACTIVE), any(), any());
+        verify(bookingRepository, times(1)).saveAndFlush(any(Booking.class));
         verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
     }
 
@@ -267,14 +466,14 @@ public class BookingServiceTest {
                 .build();
 
         when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.ofNullable(booker));
-        when(itemRepository.findById(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
+        when(itemRepository.findForUpdateById(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
 
         ItemNotAvailableException e = assertThrows(ItemNotAvailableException.class, () -> {
             bookingService.create(requestDto, booker.getId());
         });
 
         verify(userRepository, times(1)).findById(eq(booker.getId()));
-        verify(itemRepository, times(1)).findById(eq(item.getId()));
+        verify(itemRepository, times(1)).findForUpdateById(eq(item.getId()));
         verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
     }
 
@@ -289,14 +488,14 @@ public class BookingServiceTest {
                 .build();
 
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.ofNullable(owner));
-        when(itemRepository.findById(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
+        when(itemRepository.findForUpdateById(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
 
         NotFoundException e = assertThrows(NotFoundException.class, () -> {
             bookingService.create(requestDto, owner.getId());
         });
 
         verify(userRepository, times(1)).findById(eq(owner.getId()));
-        verify(itemRepository, times(1)).findById(eq(item.getId()));
+        verify(itemRepository, times(1)).findForUpdateById(eq(item.getId()));
         verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
     }
 
@@ -310,21 +509,123 @@ public class BookingServiceTest {
         Booking booking = getBooking(100, booker, item);
         booking.setStatus(BookingStatus.WAITING);
 
-        when(bookingRepository.findById(eq(booking.getId()))).thenReturn(Optional.ofNullable(booking));
+        Booking approved = getBooking(100, booker, item);
+        approved.setStatus(BookingStatus.APPROVED);
+        approved.setVersion(1);
+
+        when(bookingRepository.findById(eq(booking.getId())))
+                .thenReturn(Optional.ofNullable(booking), Optional.ofNullable(approved));
         when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.ofNullable(owner));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.updateStatusIfWaiting(eq(booking.getId()), eq(BookingStatus.APPROVED))).thenReturn(1);
 
         BookingResponseDto responseDto = bookingService.approve(booking.getId(), true, owner.getId());
 
         assertThat(responseDto.getId(), equalTo(booking.getId()));
-        assertThat(responseDto.getStatus(), equalTo(booking.getStatus()));
+        assertThat(responseDto.getStatus(), equalTo(BookingStatus.APPROVED));
         assertThat(responseDto.getBooker().getId(), equalTo(booker.getId()));
         assertThat(responseDto.getItem().getId(), equalTo(item.getId()));
         assertThat(responseDto.getItem().getName(), equalTo(item.getName()));
+        assertThat(booking.getStatus(), equalTo(BookingStatus.WAITING));
+
+        verify(bookingRepository, times(2)).findById(eq(booking.getId()));
+        verify(userRepository, times(1)).findById(eq(owner.getId()));
+        verify(bookingRepository, times(1)).updateStatusIfWaiting(eq(booking.getId()), eq(BookingStatus.APPROVED));
+        verify(bookingOutboxRepository, times(1)).save(argThat(entry -> entry.getType() == BookingEventType.APPROVED
+                && entry.getBookingId() == booking.getId() && entry.getStatus() == BookingStatus.APPROVED));
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+    }
+
+    @Test
+    void approveTest_ConcurrentlyDecided() {
+        User owner = getUser(1);
+        User booker = getUser(2);
+
+        Item item = getItem(10, owner);
+
+        Booking booking = getBooking(100, booker, item);
+        booking.setStatus(BookingStatus.WAITING);
+
+        when(bookingRepository.findById(eq(booking.getId()))).thenReturn(Optional.ofNullable(booking));
+        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.ofNullable(owner));
+        when(bookingRepository.updateStatusIfWaiting(eq(booking.getId()), eq(BookingStatus.REJECTED))).thenReturn(0);
+
+        BookingNotWaitingForApprovalException e = assertThrows(BookingNotWaitingForApprovalException.class, () -> {
+            bookingService.approve(booking.getId(), false, owner.getId());
+        });
 
         verify(bookingRepository, times(1)).findById(eq(booking.getId()));
         verify(userRepository, times(1)).findById(eq(owner.getId()));
-        verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(bookingRepository, times(1)).updateStatusIfWaiting(eq(booking.getId()), eq(BookingStatus.REJECTED));
+        verify(bookingOutboxRepository, never()).save(any(BookingOutboxEntry.class));
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+    }
+
+    @Test
+    void approveBatchTest() {
+        User owner = getUser(1);
+        User booker = getUser(2);
+
+        Item item = getItem(10, owner);
+        Item foreignItem = getItem(11, booker);
+
+        Booking toApprove = getBooking(100, booker, item);
+        toApprove.setStatus(BookingStatus.WAITING);
+        Booking toReject = getBooking(101, booker, item);
+        toReject.setStatus(BookingStatus.WAITING);
+        Booking decided = getBooking(102, booker, item);
+        decided.setStatus(BookingStatus.APPROVED);
+        Booking foreign = getBooking(103, owner, foreignItem);
+        foreign.setStatus(BookingStatus.WAITING);
+
+        List<BookingDecisionDto> decisions = List.of(
+                BookingDecisionDto.builder().bookingId(100).approved(true).build(),
+                BookingDecisionDto.builder().bookingId(101).approved(false).build(),
+                BookingDecisionDto.builder().bookingId(102).approved(false).build(),
+                BookingDecisionDto.builder().bookingId(103).approved(true).build(),
+                BookingDecisionDto.builder().bookingId(104).approved(true).build()
+        );
+
+        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.ofNullable(owner));
+        when(bookingRepository.findAllForUpdateByIdIn(eq(Set.of(100, 101, 102, 103, 104))))
+                .thenReturn(List.of(toApprove, toReject, decided, foreign));
+
+        List<BookingDecisionResultDto> results = bookingService.approveBatch(decisions, owner.getId());
+
+        assertThat(results.size(), equalTo(5));
+        assertThat(results.get(0).getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(results.get(0).getError(), equalTo(null));
+        assertThat(results.get(1).getStatus(), equalTo(BookingStatus.REJECTED));
+        assertThat(results.get(2).getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(results.get(2).getError(), equalTo("Вещь не ожидает подтверждения"));
+        assertThat(results.get(3).getError(), equalTo("Подтверждение доступно только для владельца вещи"));
+        assertThat(results.get(4).getError(), equalTo("Бронирование не найдено"));
+        assertThat(toApprove.getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(toReject.getStatus(), equalTo(BookingStatus.REJECTED));
+        assertThat(decided.getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(foreign.getStatus(), equalTo(BookingStatus.WAITING));
+
+        verify(userRepository, times(1)).findById(eq(owner.getId()));
+        verify(bookingRepository, times(1)).findAllForUpdateByIdIn(eq(Set.of(100, 101, 102, 103, 104)));
+        verify(bookingOutboxRepository, times(1)).saveAll(argThat((Iterable<BookingOutboxEntry> entries) -> {
+            List<Integer> bookingIds = new ArrayList<>();
+            entries.forEach(entry -> bookingIds.add(entry.getBookingId()));
+            return bookingIds.containsAll(List.of(100, 101)) && bookingIds.size() == 2;
+        }));
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+    }
+
+    @Test
+    void approveBatchTest_TooManyDecisions() {
+        List<BookingDecisionDto> decisions = new ArrayList<>();
+        for (int i = 0; i <= 100; i++) {
+            decisions.add(BookingDecisionDto.builder().bookingId(i).approved(true).build());
+        }
+
+        InvalidDataException e = assertThrows(InvalidDataException.class, () -> {
+            bookingService.approveBatch(decisions, 1);
+        });
+
+        assertThat(e.getMessage(), equalTo("За один запрос можно принять не более 100 решений"));
         verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
     }
 
@@ -372,6 +673,68 @@ public class BookingServiceTest {
         verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
     }
 
+    @Test
+    void exportTest() {
+        User owner = getUser(1);
+        User booker = getUser(2);
+
+        Item item = getItem(10, owner);
+
+        Booking booking1 = getBooking(100, booker, item);
+        Booking booking2 = getBooking(101, booker, item);
+
+        when(userRepository.findById(eq(booker.getId()))).thenReturn(Optional.of(booker));
+        when(userRepository.findById(eq(owner.getId()))).thenReturn(Optional.of(owner));
+        when(bookingRepository.streamAllByUserId(eq(booker.getId()))).thenReturn(Stream.of(booking1, booking2));
+        when(bookingRepository.streamAllByItemOwnerId(eq(owner.getId()))).thenReturn(Stream.of(booking2));
+
+        List<BookingResponseDto> exported = new ArrayList<>();
+        bookingService.export(booker.getId(), false, exported::add);
+
+        assertThat(exported.size(), equalTo(2));
+        assertThat(exported.get(0).getId(), equalTo(booking1.getId()));
+        assertThat(exported.get(1).getId(), equalTo(booking2.getId()));
+
+        exported.clear();
+        bookingService.export(owner.getId(), true, exported::add);
+
+        assertThat(exported.size(), equalTo(1));
+        assertThat(exported.get(0).getItem().getId(), equalTo(item.getId()));
+
+        verify(userRepository, times(1)).findById(eq(booker.getId()));
+        verify(userRepository, times(1)).findById(eq(owner.getId()));
+        verify(bookingRepository, times(1)).streamAllByUserId(eq(booker.getId()));
+        verify(bookingRepository, times(1)).streamAllByItemOwnerId(eq(owner.getId()));
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+    }
+
+    @Test
+    void exportTest_UnknownUser() {
+        when(userRepository.findById(eq(1))).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> bookingService.export(1, false, booking -> {
+        }));
+
+        verify(userRepository, times(1)).findById(eq(1));
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+    }
+
+    @Test
+    void checkExportTest_UnknownUser() {
+        when(userRepository.findById(eq(1))).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> bookingService.checkExport(1));
+
+        verify(userRepository, times(1)).findById(eq(1));
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository);
+    }
+
+    private DataIntegrityViolationException getViolation(String constraint, String sqlState) {
+        SQLException sqlException = new SQLException("Constraint violation", sqlState);
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqlException, constraint));
+    }
+
     private User getUser(int id) {
         return User.builder()
                 .id(id)
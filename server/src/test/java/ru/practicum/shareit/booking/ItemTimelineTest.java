@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.timeline.ItemTimeline;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ItemTimelineTest {
+    private final LocalDateTime timestamp = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Test
+    void overlapsTest() {
+        ItemTimeline timeline = new ItemTimeline();
+        timeline.add(1, timestamp.plusDays(5), timestamp.plusDays(6), BookingStatus.WAITING);
+        timeline.add(2, timestamp.plusDays(1), timestamp.plusDays(2), BookingStatus.APPROVED);
+        timeline.add(3, timestamp.plusDays(3), timestamp.plusDays(4), BookingStatus.APPROVED);
+
+        assertThat(timeline.overlaps(timestamp, timestamp.plusDays(1))).isFalse();
+        assertThat(timeline.overlaps(timestamp, timestamp.plusHours(25))).isTrue();
+        assertThat(timeline.overlaps(timestamp.plusDays(2), timestamp.plusDays(3))).isFalse();
+        assertThat(timeline.overlaps(timestamp.plusHours(90), timestamp.plusHours(100))).isTrue();
+        assertThat(timeline.overlaps(timestamp.plusDays(4), timestamp.plusDays(5))).isFalse();
+        assertThat(timeline.overlaps(timestamp, timestamp.plusDays(10))).isTrue();
+        assertThat(timeline.overlaps(timestamp.plusDays(6), timestamp.plusDays(10))).isFalse();
+    }
+
+    @Test
+    void overlapsTest_LongBookingBeforeShortOnes() {
+        ItemTimeline timeline = new ItemTimeline();
+        timeline.add(1, timestamp, timestamp.plusDays(10), BookingStatus.APPROVED);
+        timeline.add(2, timestamp.plusDays(1), timestamp.plusDays(2), BookingStatus.APPROVED);
+
+        assertThat(timeline.overlaps(timestamp.plusDays(5), timestamp.plusDays(6))).isTrue();
+
+        timeline.remove(1);
+
+        assertThat(timeline.overlaps(timestamp.plusDays(5), timestamp.plusDays(6))).isFalse();
+        assertThat(timeline.overlaps(timestamp.plusHours(30), timestamp.plusDays(6))).isTrue();
+        assertThat(timeline.size()).isEqualTo(1);
+    }
+
+    @Test
+    void freeWindowsTest() {
+        ItemTimeline timeline = new ItemTimeline();
+        timeline.add(1, timestamp, timestamp.plusDays(3), BookingStatus.APPROVED);
+        timeline.add(2, timestamp.plusDays(1), timestamp.plusDays(2), BookingStatus.WAITING);
+        timeline.add(3, timestamp.plusDays(4), timestamp.plusDays(5), BookingStatus.APPROVED);
+
+        assertThat(timeline.freeWindows(timestamp.plusDays(1), timestamp.plusDays(6))).containsExactly(
+                new ItemAvailabilityDto.Interval(timestamp.plusDays(3), timestamp.plusDays(4)),
+                new ItemAvailabilityDto.Interval(timestamp.plusDays(5), timestamp.plusDays(6)));
+        assertThat(timeline.freeWindows(timestamp.plusHours(1), timestamp.plusDays(2))).isEmpty();
+        assertThat(timeline.freeWindows(timestamp.minusDays(1), timestamp.plusHours(1))).containsExactly(
+                new ItemAvailabilityDto.Interval(timestamp.minusDays(1), timestamp));
+    }
+}
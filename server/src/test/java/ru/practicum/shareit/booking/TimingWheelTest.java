@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.lifecycle.TimingWheel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimingWheelTest {
+    private static final long START = 1_000_000L;
+
+    @Test
+    void advanceTest() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, START);
+
+        assertThat(wheel.add(START + 15, "first")).isTrue();
+        assertThat(wheel.add(START + 35, "second")).isTrue();
+        assertThat(wheel.add(START + 95, "overflow")).isTrue();
+        assertThat(wheel.add(START + 1_234, "far")).isTrue();
+        assertThat(wheel.size()).isEqualTo(4);
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(START + 10, expired::add);
+        assertThat(expired).isEmpty();
+
+        wheel.advance(START + 19, expired::add);
+        assertThat(expired).isEmpty();
+
+        wheel.advance(START + 20, expired::add);
+        assertThat(expired).containsExactly("first");
+
+        wheel.advance(START + 49, expired::add);
+        assertThat(expired).containsExactly("first", "second");
+
+        wheel.advance(START + 99, expired::add);
+        assertThat(expired).containsExactly("first", "second");
+
+        wheel.advance(START + 100, expired::add);
+        assertThat(expired).containsExactly("first", "second", "overflow");
+
+        wheel.advance(START + 1_239, expired::add);
+        assertThat(expired).containsExactly("first", "second", "overflow");
+        assertThat(wheel.size()).isEqualTo(1);
+
+        wheel.advance(START + 1_240, expired::add);
+        assertThat(expired).containsExactly("first", "second", "overflow", "far");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advanceTest_NotOnTickBoundary() {
+        TimingWheel<Long> wheel = new TimingWheel<>(10, 4, START);
+        for (long expiration = START + 1; expiration <= START + 500; expiration += 7) {
+            wheel.add(expiration, expiration);
+        }
+
+        for (long time = START; time <= START + 600; time++) {
+            long now = time;
+            wheel.advance(now, expiration -> {
+                assertThat(expiration).isLessThanOrEqualTo(now);
+                assertThat(now - expiration).isLessThan(10);
+            });
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advanceTest_Jump() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(10, 4, START);
+        for (int i = 1; i <= 50; i++) {
+            wheel.add(START + i * 37L, i);
+        }
+
+        List<Integer> expired = new ArrayList<>();
+        wheel.advance(START + 10_000, expired::add);
+
+        assertThat(expired).hasSize(50).isSorted();
+    }
+
+    @Test
+    void addTest_Expired() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, START);
+
+        assertThat(wheel.add(START - 1, "past")).isFalse();
+        assertThat(wheel.add(START, "current tick")).isFalse();
+        assertThat(wheel.add(START + 1, "inside next tick")).isTrue();
+        assertThat(wheel.add(START + 10, "next tick")).isTrue();
+        assertThat(wheel.size()).isEqualTo(2);
+    }
+}
@@ -8,10 +8,14 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.BufferedReader;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
@@ -145,6 +149,80 @@ public class ItemControllerTest {
         verifyNoMoreInteractions(itemService);
     }
 
+    @Test
+    void getAllFreeBySearchTextTest() throws Exception {
+        ItemDto responseDto = getItemResponseDto(10);
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusDays(2);
+
+        when(itemService.getAllFreeBySearchText(anyString(), eq(start), eq(end), anyInt(), anyInt()))
+                .thenReturn(List.of(responseDto));
+
+        mockMvc.perform(get("/items/search/free")
+                        .param("text", "someText")
+                        .param("start", "2030-01-01T10:00:00")
+                        .param("end", "2030-01-03T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(responseDto.getId()));
+
+        verify(itemService, times(1)).getAllFreeBySearchText(eq("someText"), eq(start), eq(end), anyInt(), anyInt());
+        verifyNoMoreInteractions(itemService);
+    }
+
+    @Test
+    void importItemsTest() throws Exception {
+        int userId = 1;
+
+        ItemImportResultDto result = ItemImportResultDto.builder()
+                .imported(1)
+                .errors(List.of(new ItemImportResultDto.RowError(2, "Имя не должно быть пустым")))
+                .build();
+
+        when(itemService.importItems(any(BufferedReader.class), eq(userId))).thenReturn(result);
+
+        mockMvc.perform(post("/items/bulk")
+                        .header("X-Sharer-User-Id", userId)
+                        .content("{\"name\":\"Item\",\"description\":\"Item\",\"available\":true}\n{}\n")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(ItemController.NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[0].error").value("Имя не должно быть пустым"));
+
+        verify(itemService, times(1)).importItems(any(BufferedReader.class), eq(userId));
+        verifyNoMoreInteractions(itemService);
+    }
+
+    @Test
+    void getAvailabilityTest() throws Exception {
+        int userId = 1;
+        int itemId = 10;
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(2);
+
+        ItemAvailabilityDto responseDto = ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .free(List.of(new ItemAvailabilityDto.Interval(from.plusDays(1), to)))
+                .build();
+
+        when(itemService.getAvailability(eq(userId), eq(itemId), eq(from), eq(to))).thenReturn(responseDto);
+
+        mockMvc.perform(get("/items/" + itemId + "/availability")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-03T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(itemId))
+                .andExpect(jsonPath("$.free[0].start").value("2030-01-02T10:00:00"))
+                .andExpect(jsonPath("$.free[0].end").value("2030-01-03T10:00:00"));
+
+        verify(itemService, times(1)).getAvailability(eq(userId), eq(itemId), eq(from), eq(to));
+        verifyNoMoreInteractions(itemService);
+    }
+
     @Test
     void update() throws Exception {
         int userId = 1;
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class ItemInsertThroughputTest {
+    private static final int ITEMS = 5000;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void cleanUp() {
+        itemRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void saveAllThroughputTest() {
+        User owner = userRepository.save(User.builder().name("Owner").email("owner@throughput.com").build());
+        List<Item> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(Item.builder()
+                    .name("Item " + i)
+                    .description("Description " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long startedAt = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> itemRepository.saveAll(items));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        long statements = statistics.getPrepareStatementCount();
+        log.info("Inserted {} items in {} ms ({} items/s) using {} prepared statements", ITEMS, elapsedMillis,
+                ITEMS * 1000L / Math.max(elapsedMillis, 1), statements);
+
+        assertThat(statements).isLessThan(ITEMS / 10);
+        assertThat(itemRepository.count()).isEqualTo(ITEMS);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemInvertedIndex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ItemInvertedIndexTest {
+    private ItemInvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemInvertedIndex();
+        index.put(getItem(1, "Фиолетовый слон", "Обычный фиолетовый слон", true));
+        index.put(getItem(2, "Фиолетовый пчел", "Необычный пчел лягух", true));
+        index.put(getItem(3, "Зеленый лягух", "Обычный лягух", true));
+        index.put(getItem(4, "Тигр", "Недоступный тигр", false));
+    }
+
+    @Test
+    void searchTest() {
+        assertThat(index.search("ТиГр", 0, 10)).isEmpty();
+        assertThat(index.search("ФиОлЕтОвЫй", 0, 10)).containsExactly(1, 2);
+        assertThat(index.search("ЛяГуХ", 0, 10)).containsExactly(2, 3);
+        assertThat(index.search("ый сл", 0, 10)).containsExactly(1);
+        assertThat(index.search("ы", 0, 10)).containsExactly(1, 2, 3);
+        assertThat(index.search("бегемот", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void searchPageTest() {
+        assertThat(index.search("ы", 1, 1)).containsExactly(2);
+        assertThat(index.search("ы", 3, 10)).isEmpty();
+    }
+
+    @Test
+    void searchAfterTest() {
+        assertThat(index.searchAfter("ы", -1, 2)).containsExactly(1, 2);
+        assertThat(index.searchAfter("ы", 2, 2)).containsExactly(3);
+        assertThat(index.searchAfter("ы", 3, 2)).isEmpty();
+        assertThat(index.searchAfter("лягух", 2, 10)).containsExactly(3);
+        assertThat(index.searchAfter("лягух", 1, 10)).containsExactly(2, 3);
+        assertThat(index.searchAfter("тигр", -1, 10)).isEmpty();
+    }
+
+    @Test
+    void putAndRemoveTest() {
+        index.put(getItem(4, "Тигр", "Доступный тигр", true));
+        index.put(getItem(1, "Серый слон", "Обычный серый слон", true));
+
+        assertThat(index.search("тигр", 0, 10)).containsExactly(4);
+        assertThat(index.search("фиолетовый", 0, 10)).containsExactly(2);
+
+        index.remove(2);
+
+        assertThat(index.search("фиолетовый", 0, 10)).isEmpty();
+        assertThat(index.search("лягух", 0, 10)).containsExactly(3);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    private Item getItem(int id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
@@ -4,17 +4,26 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemBatchRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
 @DataJpaTest
 @Transactional
+@Import(ItemBatchRepository.class)
 public class ItemRepositoryTest {
     @Autowired
     private TestEntityManager testEntityManager;
@@ -22,6 +31,9 @@ public class ItemRepositoryTest {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private ItemBatchRepository itemBatchRepository;
+
     @Test
     public void testFindBySearchText() {
         User owner = testEntityManager.persist(User.builder()
@@ -63,4 +75,134 @@ public class ItemRepositoryTest {
         assertThat(itemRepository.findBySearchText("ФиОлЕтОвЫй", pageable)).size().isEqualTo(1);
         assertThat(itemRepository.findBySearchText("ЛяГуХ", pageable)).size().isEqualTo(2);
     }
+
+    @Test
+    public void testFindFreeBySearchText() {
+        LocalDateTime timestamp = LocalDateTime.now().withNano(0);
+
+        User owner = testEntityManager.persist(User.builder()
+                .name("Owner")
+                .email("owner@user.com")
+                .build());
+
+        User booker = testEntityManager.persist(User.builder()
+                .name("Booker")
+                .email("booker@user.com")
+                .build());
+
+        Item booked = testEntityManager.persist(Item.builder()
+                .name("Дрель ударная")
+                .description("Дрель")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        Item free = testEntityManager.persist(Item.builder()
+                .name("Дрель аккумуляторная")
+                .description("Дрель")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        testEntityManager.persist(Booking.builder()
+                .start(timestamp.plusDays(1))
+                .end(timestamp.plusDays(3))
+                .item(booked)
+                .user(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        testEntityManager.persist(Booking.builder()
+                .start(timestamp.plusDays(1))
+                .end(timestamp.plusDays(3))
+                .item(free)
+                .user(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+
+        Pageable pageable = PageRequest.of(0, 10);
+
+        assertThat(itemRepository.findFreeBySearchText("дрель", timestamp.plusDays(2), timestamp.plusDays(4), pageable))
+                .extracting(Item::getId)
+                .containsExactly(free.getId());
+        assertThat(itemRepository.findFreeBySearchText("дрель", timestamp.plusDays(3), timestamp.plusDays(4), pageable))
+                .extracting(Item::getId)
+                .containsExactlyInAnyOrder(booked.getId(), free.getId());
+    }
+
+    @Test
+    public void testInsertAll() {
+        User owner = testEntityManager.persist(User.builder()
+                .name("Owner")
+                .email("owner@user.com")
+                .build());
+
+        List<Item> items = List.of(
+                Item.builder().name("Item1").description("Descr1").available(true).owner(owner).build(),
+                Item.builder().name("Item2").description("Descr2").available(false).owner(owner).build()
+        );
+        testEntityManager.flush();
+
+        itemBatchRepository.insertAll(items);
+
+        assertThat(items).extracting(Item::getId).doesNotContainNull();
+        assertThat(itemRepository.findAllById(List.of(items.get(0).getId(), items.get(1).getId())))
+                .extracting(Item::getName)
+                .containsExactlyInAnyOrder("Item1", "Item2");
+    }
+
+    @Test
+    public void testFindAllByItemRequestIdIn() {
+        User owner = testEntityManager.persist(User.builder()
+                .name("Owner")
+                .email("owner@user.com")
+                .build());
+
+        User requestor = testEntityManager.persist(User.builder()
+                .name("Requestor")
+                .email("requestor@user.com")
+                .build());
+
+        ItemRequest request1 = testEntityManager.persist(ItemRequest.builder()
+                .description("Request1")
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .build());
+
+        ItemRequest request2 = testEntityManager.persist(ItemRequest.builder()
+                .description("Request2")
+                .requestor(requestor)
+                .created(LocalDateTime.now())
+                .build());
+
+        Item item1 = testEntityManager.persist(Item.builder()
+                .name("Item1")
+                .description("Item1")
+                .available(true)
+                .owner(owner)
+                .itemRequest(request1)
+                .build());
+
+        Item item2 = testEntityManager.persist(Item.builder()
+                .name("Item2")
+                .description("Item2")
+                .available(true)
+                .owner(owner)
+                .itemRequest(request2)
+                .build());
+
+        testEntityManager.persist(Item.builder()
+                .name("Item3")
+                .description("Item3")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        assertThat(itemRepository.findAllByItemRequestIdIn(List.of(request1.getId(), request2.getId())))
+                .extracting(Item::getId)
+                .containsExactly(item1.getId(), item2.getId());
+        assertThat(itemRepository.findAllByItemRequestIdIn(List.of(request2.getId())))
+                .extracting(Item::getId)
+                .containsExactly(item2.getId());
+    }
 }
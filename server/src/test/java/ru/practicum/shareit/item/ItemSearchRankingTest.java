@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.PostgresTestSupport;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("default")
+@EnabledIf(PostgresTestSupport.ENABLED)
+public class ItemSearchRankingTest {
+    private final LocalDateTime timestamp = LocalDateTime.now().withNano(0).plusDays(1);
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User booker;
+    private Item partialName;
+    private Item exactDescription;
+    private Item exactName;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        PostgresTestSupport.register(registry);
+    }
+
+    @BeforeEach
+    void setUp() {
+        User owner = testEntityManager.persist(User.builder().name("Owner").email("owner@user.com").build());
+        booker = testEntityManager.persist(User.builder().name("Booker").email("booker@user.com").build());
+        partialName = testEntityManager.persist(getItem("Мощная дрелька", "Инструмент", true, owner));
+        exactDescription = testEntityManager.persist(getItem("Шуруповерт", "Аккумуляторная дрель-шуруповерт",
+                true, owner));
+        exactName = testEntityManager.persist(getItem("Дрель", "Ударная", true, owner));
+        testEntityManager.persist(getItem("Дрель", "Сломана", false, owner));
+        testEntityManager.persist(getItem("Отвертка", "Крестовая", true, owner));
+    }
+
+    @Test
+    void findRankedBySearchTextTest() {
+        assertThat(itemRepository.findRankedBySearchText("ДрЕлЬ", PageRequest.of(0, 10)))
+                .extracting(Item::getId)
+                .containsExactly(exactDescription.getId(), exactName.getId(), partialName.getId());
+        assertThat(itemRepository.findRankedBySearchText("дрель", PageRequest.of(1, 2)))
+                .extracting(Item::getId)
+                .containsExactly(partialName.getId());
+        assertThat(itemRepository.findRankedBySearchText("бегемот", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    void findFreeRankedBySearchTextTest() {
+        testEntityManager.persist(getBooking(exactName, BookingStatus.APPROVED));
+        testEntityManager.persist(getBooking(exactDescription, BookingStatus.WAITING));
+
+        assertThat(itemRepository.findFreeRankedBySearchText("дрель", timestamp.plusHours(1),
+                timestamp.plusHours(2), PageRequest.of(0, 10)))
+                .extracting(Item::getId)
+                .containsExactly(exactDescription.getId(), partialName.getId());
+        assertThat(itemRepository.findFreeRankedBySearchText("дрель", timestamp.plusDays(2),
+                timestamp.plusDays(3), PageRequest.of(0, 10)))
+                .extracting(Item::getId)
+                .containsExactly(exactDescription.getId(), exactName.getId(), partialName.getId());
+    }
+
+    @Test
+    void trigramIndexesExistTest() {
+        assertThat(jdbcTemplate.queryForList("SELECT indexname FROM pg_indexes WHERE tablename = 'items'",
+                String.class))
+                .contains("idx_items_name_trgm", "idx_items_description_trgm");
+    }
+
+    private Item getItem(String name, String description, boolean available, User owner) {
+        return Item.builder()
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(owner)
+                .build();
+    }
+
+    private Booking getBooking(Item item, BookingStatus status) {
+        return Booking.builder()
+                .start(timestamp)
+                .end(timestamp.plusDays(1))
+                .item(item)
+                .user(booker)
+                .status(status)
+                .build();
+    }
+}
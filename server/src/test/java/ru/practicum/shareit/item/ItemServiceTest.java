@@ -1,32 +1,43 @@
 package ru.practicum.shareit.item;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.*;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemBatchRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
+import java.io.BufferedReader;
+import java.io.StringReader;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -46,6 +57,9 @@ public class ItemServiceTest {
     @MockBean
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
     @MockBean
     private BookingRepository bookingRepository;
 
@@ -55,6 +69,14 @@ public class ItemServiceTest {
     @MockBean
     private ItemRequestRepository itemRequestRepository;
 
+    @MockBean
+    private ItemBatchRepository itemBatchRepository;
+
+    @BeforeEach
+    void setUp() {
+        userCache.invalidateAll();
+    }
+
     @Test
     void createTest() {
         User user = getUser(1);
@@ -124,6 +146,38 @@ public class ItemServiceTest {
         verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
     }
 
+    @Test
+    void importItemsTest() {
+        User user = getUser(1);
+        ItemRequest itemRequest = getItemRequest(5);
+
+        String ndjson = "{\"name\":\"Item1\",\"description\":\"Descr1\",\"available\":true}\n" +
+                "not json\n" +
+                "\n" +
+                "{\"description\":\"Descr3\",\"available\":true}\n" +
+                "{\"name\":\"Item4\",\"description\":\"Descr4\",\"available\":false,\"requestId\":5}\n" +
+                "{\"name\":\"Item5\",\"description\":\"Descr5\",\"available\":true,\"requestId\":6}\n";
+
+        when(userRepository.findById(eq(user.getId()))).thenReturn(Optional.of(user));
+        when(itemRequestRepository.findAllById(eq(Set.of(5, 6)))).thenReturn(List.of(itemRequest));
+
+        ItemImportResultDto result = itemService.importItems(new BufferedReader(new StringReader(ndjson)), user.getId());
+
+        assertThat(result.getImported(), equalTo(2L));
+        assertThat(result.getErrors(), equalTo(List.of(
+                new ItemImportResultDto.RowError(2, "Некорректный формат строки"),
+                new ItemImportResultDto.RowError(4, "Имя не должно быть пустым"),
+                new ItemImportResultDto.RowError(6, "Запрос не найден"))));
+
+        verify(userRepository, times(1)).findById(eq(user.getId()));
+        verify(itemRequestRepository, times(1)).findAllById(eq(Set.of(5, 6)));
+        verify(itemBatchRepository, times(1)).insertAll(argThat(items -> items.size() == 2
+                && items.get(0).getOwner().getId().equals(user.getId())
+                && items.get(1).getItemRequest() == itemRequest));
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository,
+                itemRequestRepository, itemBatchRepository);
+    }
+
     @Test
     void createCommentTest() {
         User user = getUser(1);
@@ -222,18 +276,8 @@ public class ItemServiceTest {
         Item item = getItem(10);
         item.setOwner(owner);
 
-        Booking lastBooking = getBooking(100, booker, item);
-        lastBooking.setStart(LocalDateTime.now().minusDays(2));
-        lastBooking.setEnd(LocalDateTime.now().minusDays(1));
-
-        Booking nextBooking = getBooking(101, booker, item);
-        nextBooking.setStart(LocalDateTime.now().plusDays(1));
-        nextBooking.setEnd(LocalDateTime.now().plusDays(2));
-
-        List<Booking> bookingList = Arrays.asList(
-                lastBooking,
-                nextBooking
-        );
+        ItemBookingView lastBooking = getItemBookingView(100, booker, item);
+        ItemBookingView nextBooking = getItemBookingView(101, booker, item);
 
         Comment comment1 = getComment(1000);
         comment1.setAuthor(booker);
@@ -247,7 +291,8 @@ public class ItemServiceTest {
         );
 
         when(itemRepository.findById(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
-        when(bookingRepository.findAllByItemId(eq(item.getId()))).thenReturn(bookingList);
+        when(bookingRepository.findNextApprovedByItemIdIn(eq(List.of(item.getId())), any(LocalDateTime.class))).thenReturn(List.of(nextBooking));
+        when(bookingRepository.findLastApprovedByItemIdIn(eq(List.of(item.getId())), any(LocalDateTime.class))).thenReturn(List.of(lastBooking));
         when(commentRepository.findAllByItemId(eq(item.getId()))).thenReturn(commentList);
 
         ItemDto resultDto = itemService.getById(owner.getId(), item.getId());
@@ -271,7 +316,8 @@ public class ItemServiceTest {
         assertThat(resultDto.getComments().get(1).getAuthorName(), equalTo(booker.getName()));
 
         verify(itemRepository, times(1)).findById(eq(item.getId()));
-        verify(bookingRepository, times(1)).findAllByItemId(eq(item.getId()));
+        verify(bookingRepository, times(1)).findNextApprovedByItemIdIn(eq(List.of(item.getId())), any(LocalDateTime.class));
+        verify(bookingRepository, times(1)).findLastApprovedByItemIdIn(eq(List.of(item.getId())), any(LocalDateTime.class));
         verify(commentRepository, times(1)).findAllByItemId(eq(item.getId()));
         verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
     }
@@ -301,19 +347,6 @@ public class ItemServiceTest {
         Item item = getItem(10);
         item.setOwner(owner);
 
-        Booking lastBooking = getBooking(100, booker, item);
-        lastBooking.setStart(LocalDateTime.now().minusDays(2));
-        lastBooking.setEnd(LocalDateTime.now().minusDays(1));
-
-        Booking nextBooking = getBooking(101, booker, item);
-        nextBooking.setStart(LocalDateTime.now().plusDays(1));
-        nextBooking.setEnd(LocalDateTime.now().plusDays(2));
-
-        List<Booking> bookingList = Arrays.asList(
-                lastBooking,
-                nextBooking
-        );
-
         Comment comment1 = getComment(1000);
         comment1.setAuthor(booker);
 
@@ -326,7 +359,6 @@ public class ItemServiceTest {
         );
 
         when(itemRepository.findById(eq(item.getId()))).thenReturn(Optional.ofNullable(item));
-        when(bookingRepository.findAllByItemId(eq(item.getId()))).thenReturn(bookingList);
         when(commentRepository.findAllByItemId(eq(item.getId()))).thenReturn(commentList);
 
         ItemDto resultDto = itemService.getById(notOwner.getId(), item.getId());
@@ -368,24 +400,16 @@ public class ItemServiceTest {
                 item2
         );
 
-        Booking item1lastBooking = getBooking(100, booker, item1);
-        item1lastBooking.setStart(LocalDateTime.now().minusDays(2));
-        item1lastBooking.setEnd(LocalDateTime.now().minusDays(1));
-
-        Booking item1nextBooking = getBooking(101, booker, item1);
-        item1nextBooking.setStart(LocalDateTime.now().plusDays(1));
-        item1nextBooking.setEnd(LocalDateTime.now().plusDays(2));
-
-        List<Booking> item1bookingList = Arrays.asList(
-                item1lastBooking,
-                item1nextBooking
-        );
+        ItemBookingView item1lastBooking = getItemBookingView(100, booker, item1);
+        ItemBookingView item1nextBooking = getItemBookingView(101, booker, item1);
 
         Comment comment1 = getComment(1000);
         comment1.setAuthor(booker);
+        comment1.setItem(item1);
 
         Comment comment2 = getComment(1001);
         comment2.setAuthor(booker);
+        comment2.setItem(item1);
 
         List<Comment> item1commentList = Arrays.asList(
                 comment1,
@@ -393,10 +417,9 @@ public class ItemServiceTest {
         );
 
         when(itemRepository.findAllByOwnerId(eq(owner.getId()), any(Pageable.class))).thenReturn(itemList);
-        when(bookingRepository.findAllByItemId(eq(item1.getId()))).thenReturn(item1bookingList);
-        when(bookingRepository.findAllByItemId(eq(item2.getId()))).thenReturn(new ArrayList<>());
-        when(commentRepository.findAllByItemId(eq(item1.getId()))).thenReturn(item1commentList);
-        when(commentRepository.findAllByItemId(eq(item2.getId()))).thenReturn(new ArrayList<>());
+        when(bookingRepository.findNextApprovedByItemIdIn(eq(List.of(item1.getId(), item2.getId())), any(LocalDateTime.class))).thenReturn(List.of(item1nextBooking));
+        when(bookingRepository.findLastApprovedByItemIdIn(eq(List.of(item1.getId(), item2.getId())), any(LocalDateTime.class))).thenReturn(List.of(item1lastBooking));
+        when(commentRepository.findAllByItemIdIn(eq(List.of(item1.getId(), item2.getId())))).thenReturn(item1commentList);
 
         List<ItemDto> resultDtoList = itemService.getAllByOwnerId(owner.getId(), 0, 10);
 
@@ -430,10 +453,9 @@ public class ItemServiceTest {
         assertThat(resultDtoList.get(1).getComments().size(), equalTo(0));
 
         verify(itemRepository, times(1)).findAllByOwnerId(eq(owner.getId()), any(Pageable.class));
-        verify(bookingRepository, times(1)).findAllByItemId(eq(item1.getId()));
-        verify(bookingRepository, times(1)).findAllByItemId(eq(item2.getId()));
-        verify(commentRepository, times(1)).findAllByItemId(eq(item1.getId()));
-        verify(commentRepository, times(1)).findAllByItemId(eq(item2.getId()));
+        verify(bookingRepository, times(1)).findNextApprovedByItemIdIn(eq(List.of(item1.getId(), item2.getId())), any(LocalDateTime.class));
+        verify(bookingRepository, times(1)).findLastApprovedByItemIdIn(eq(List.of(item1.getId(), item2.getId())), any(LocalDateTime.class));
+        verify(commentRepository, times(1)).findAllByItemIdIn(eq(List.of(item1.getId(), item2.getId())));
         verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
     }
 
@@ -478,6 +500,37 @@ public class ItemServiceTest {
         verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
     }
 
+    @Test
+    void getAllFreeBySearchTextTest() {
+        String searchText = "Item";
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+
+        Item item = getItem(1);
+
+        when(itemRepository.findFreeBySearchText(eq(searchText), eq(start), eq(end), any(Pageable.class)))
+                .thenReturn(List.of(item));
+
+        List<ItemDto> resultDtoList = itemService.getAllFreeBySearchText(searchText, start, end, 0, 10);
+
+        assertThat(resultDtoList.size(), equalTo(1));
+        assertThat(resultDtoList.get(0).getId(), equalTo(item.getId()));
+
+        verify(itemRepository, times(1)).findFreeBySearchText(eq(searchText), eq(start), eq(end), any(Pageable.class));
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+    }
+
+    @Test
+    void getAllFreeBySearchTextTest_InvalidPeriod() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        assertThrows(InvalidDataException.class, () -> {
+            itemService.getAllFreeBySearchText("Item", start, start, 0, 10);
+        });
+
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+    }
+
     @Test
     void updateTest() {
         ItemDto inputDto = ItemDto.builder().build();
@@ -543,6 +596,70 @@ public class ItemServiceTest {
         verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
     }
 
+    @Test
+    void getAvailabilityTest() {
+        User user = getUser(1);
+        Item item = getItem(100);
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        LocalDateTime to = from.plusDays(10);
+
+        when(userRepository.findById(eq(user.getId()))).thenReturn(Optional.of(user));
+        when(itemRepository.findById(eq(item.getId()))).thenReturn(Optional.of(item));
+        when(bookingRepository.findIntervalsByItemId(eq(item.getId()), eq(BookingStatus.ACTIVE), any(LocalDateTime.class)))
+                .thenReturn(List.of(
+                        getBookingIntervalView(1, from.plusDays(2), from.plusDays(3)),
+                        getBookingIntervalView(2, from.plusDays(5), from.plusDays(6))));
+
+        ItemAvailabilityDto availability = itemService.getAvailability(user.getId(), item.getId(), from, to);
+
+        assertThat(availability.getItemId(), equalTo(item.getId()));
+        assertThat(availability.getFree(), equalTo(List.of(
+                new ItemAvailabilityDto.Interval(from, from.plusDays(2)),
+                new ItemAvailabilityDto.Interval(from.plusDays(3), from.plusDays(5)),
+                new ItemAvailabilityDto.Interval(from.plusDays(6), to))));
+
+        verify(userRepository, times(1)).findById(eq(user.getId()));
+        verify(itemRepository, times(1)).findById(eq(item.getId()));
+        verify(bookingRepository, times(1)).findIntervalsByItemId(eq(item.getId()), eq(BookingStatus.ACTIVE), any(LocalDateTime.class));
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+    }
+
+    @Test
+    void getAvailabilityTest_InvalidPeriod() {
+        User user = getUser(1);
+        Item item = getItem(100);
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+
+        when(userRepository.findById(eq(user.getId()))).thenReturn(Optional.of(user));
+        when(itemRepository.findById(eq(item.getId()))).thenReturn(Optional.of(item));
+
+        InvalidDataException e = assertThrows(InvalidDataException.class, () -> {
+            itemService.getAvailability(user.getId(), item.getId(), from, from.minusHours(1));
+        });
+
+        verify(userRepository, times(1)).findById(eq(user.getId()));
+        verify(itemRepository, times(1)).findById(eq(item.getId()));
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+    }
+
+    @Test
+    void getAllBySearchTextTest_Offset() {
+        Item item = getItem(100);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+
+        when(itemRepository.findBySearchText(eq("item"), any(Pageable.class))).thenReturn(List.of(item));
+        when(itemRepository.findFreeBySearchText(eq("item"), eq(start), eq(end), any(Pageable.class)))
+                .thenReturn(List.of(item));
+
+        assertThat(itemService.getAllBySearchText("item", 20, 10).size(), equalTo(1));
+        assertThat(itemService.getAllFreeBySearchText("item", start, end, 25, 5).size(), equalTo(1));
+
+        verify(itemRepository, times(1)).findBySearchText(eq("item"), eq(PageRequest.of(2, 10)));
+        verify(itemRepository, times(1)).findFreeBySearchText(eq("item"), eq(start), eq(end), eq(PageRequest.of(5, 5)));
+        verifyNoMoreInteractions(itemRepository, userRepository, bookingRepository, commentRepository, itemRequestRepository);
+    }
+
     @Test
     void deleteTest() {
         itemService.delete(1);
@@ -583,12 +700,46 @@ public class ItemServiceTest {
                 .build();
     }
 
-    private Booking getBooking(int id, User booker, Item item) {
-        return Booking.builder()
-                .id(id)
-                .status(BookingStatus.APPROVED)
-                .user(booker)
-                .item(item)
-                .build();
+    private BookingIntervalView getBookingIntervalView(int id, LocalDateTime start, LocalDateTime end) {
+        return new BookingIntervalView() {
+            @Override
+            public Integer getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+
+            @Override
+            public BookingStatus getStatus() {
+                return BookingStatus.APPROVED;
+            }
+        };
+    }
+
+    private ItemBookingView getItemBookingView(int id, User booker, Item item) {
+        return new ItemBookingView() {
+            @Override
+            public Integer getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getItemId() {
+                return item.getId();
+            }
+
+            @Override
+            public Integer getBookerId() {
+                return booker.getId();
+            }
+        };
     }
 }
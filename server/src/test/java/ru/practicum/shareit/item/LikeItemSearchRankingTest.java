@@ -0,0 +1,125 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.InvertedIndexItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.LikeItemSearchEngine;
+import ru.practicum.shareit.item.search.TrigramItemSearchEngine;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@Import(LikeItemSearchEngine.class)
+public class LikeItemSearchRankingTest {
+    private final LocalDateTime timestamp = LocalDateTime.now().withNano(0).plusDays(1);
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Autowired
+    private ItemSearchEngine itemSearchEngine;
+
+    private User booker;
+    private Item descriptionOnly;
+    private Item partialName;
+    private Item prefixName;
+    private Item exactName;
+
+    @BeforeEach
+    void setUp() {
+        User owner = testEntityManager.persist(User.builder().name("Owner").email("owner@user.com").build());
+        booker = testEntityManager.persist(User.builder().name("Booker").email("booker@user.com").build());
+        descriptionOnly = testEntityManager.persist(getItem("Шуруповерт", "Аккумуляторная дрель-шуруповерт",
+                true, owner));
+        partialName = testEntityManager.persist(getItem("Мощная дрелька", "Инструмент", true, owner));
+        prefixName = testEntityManager.persist(getItem("Дрель-миксер", "Для штукатурки", true, owner));
+        exactName = testEntityManager.persist(getItem("Дрель", "Ударная", true, owner));
+        testEntityManager.persist(getItem("Дрель", "Сломана", false, owner));
+        testEntityManager.persist(getItem("Отвертка", "Крестовая", true, owner));
+    }
+
+    @Test
+    void searchTest() {
+        assertThat(itemSearchEngine).isInstanceOf(LikeItemSearchEngine.class);
+        assertThat(itemSearchEngine.search("ДрЕлЬ", PageRequest.of(0, 10)))
+                .extracting(Item::getId)
+                .containsExactly(exactName.getId(), prefixName.getId(), partialName.getId(), descriptionOnly.getId());
+        assertThat(itemSearchEngine.search("бегемот", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    void searchPageTest() {
+        assertThat(itemSearchEngine.search("дрель", PageRequest.of(0, 2)))
+                .extracting(Item::getId)
+                .containsExactly(exactName.getId(), prefixName.getId());
+        assertThat(itemSearchEngine.search("дрель", PageRequest.of(1, 2)))
+                .extracting(Item::getId)
+                .containsExactly(partialName.getId(), descriptionOnly.getId());
+        assertThat(itemSearchEngine.search("дрель", PageRequest.of(2, 2))).isEmpty();
+    }
+
+    @Test
+    void searchFreeTest() {
+        testEntityManager.persist(getBooking(exactName, BookingStatus.APPROVED));
+        testEntityManager.persist(getBooking(prefixName, BookingStatus.WAITING));
+
+        assertThat(itemSearchEngine.searchFree("дрель", timestamp.plusHours(1), timestamp.plusHours(2),
+                PageRequest.of(0, 10)))
+                .extracting(Item::getId)
+                .containsExactly(prefixName.getId(), partialName.getId(), descriptionOnly.getId());
+        assertThat(itemSearchEngine.searchFree("дрель", timestamp.plusHours(1), timestamp.plusHours(2),
+                PageRequest.of(1, 2)))
+                .extracting(Item::getId)
+                .containsExactly(descriptionOnly.getId());
+        assertThat(itemSearchEngine.searchFree("дрель", timestamp.plusDays(2), timestamp.plusDays(3),
+                PageRequest.of(0, 10)))
+                .extracting(Item::getId)
+                .containsExactly(exactName.getId(), prefixName.getId(), partialName.getId(), descriptionOnly.getId());
+    }
+
+    @Test
+    void defaultEngineTest() {
+        new ApplicationContextRunner()
+                .withBean(ItemRepository.class, () -> mock(ItemRepository.class))
+                .withBean(BookingRepository.class, () -> mock(BookingRepository.class))
+                .withUserConfiguration(LikeItemSearchEngine.class, TrigramItemSearchEngine.class,
+                        InvertedIndexItemSearchEngine.class)
+                .run(context -> assertThat(context).getBean(ItemSearchEngine.class)
+                        .isInstanceOf(LikeItemSearchEngine.class));
+    }
+
+    private Item getItem(String name, String description, boolean available, User owner) {
+        return Item.builder()
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(owner)
+                .build();
+    }
+
+    private Booking getBooking(Item item, BookingStatus status) {
+        return Booking.builder()
+                .start(timestamp)
+                .end(timestamp.plusDays(1))
+                .item(item)
+                .user(booker)
+                .status(status)
+                .build();
+    }
+}
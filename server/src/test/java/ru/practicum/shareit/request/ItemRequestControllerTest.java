@@ -7,6 +7,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 import ru.practicum.shareit.request.dto.ItemRequestCreateResponseDto;
 import ru.practicum.shareit.request.dto.ItemRequestGetResponseDto;
@@ -19,9 +21,12 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemRequestController.class)
@@ -125,6 +130,31 @@ public class ItemRequestControllerTest {
         verifyNoMoreInteractions(itemRequestService);
     }
 
+    @Test
+    void subscribeTest() throws Exception {
+        int userId = 1;
+
+        SseEmitter emitter = new SseEmitter();
+
+        when(itemRequestService.subscribe(eq(userId))).thenReturn(emitter);
+
+        MvcResult result = mockMvc.perform(get("/requests/subscribe")
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        emitter.send(SseEmitter.event().name("request").data(getResponseDto(10), MediaType.APPLICATION_JSON));
+        emitter.complete();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("event:request\ndata:{\"id\":10,\"description\":null,\"created\":null,\"items\":null}\n\n"));
+
+        verify(itemRequestService, times(1)).subscribe(eq(userId));
+        verifyNoMoreInteractions(itemRequestService);
+    }
+
     private ItemRequestGetResponseDto getResponseDto(int id) {
         return ItemRequestGetResponseDto.builder()
                 .id(id)
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestGetResponseDto;
+import ru.practicum.shareit.request.feed.ItemRequestFeed;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+public class ItemRequestFeedTest {
+    private final LocalDateTime timestamp = LocalDateTime.of(2030, 1, 1, 12, 0);
+    private final ItemRequestRepository itemRequestRepository = mock(ItemRequestRepository.class);
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final User requestor = User.builder().id(1).name("Requestor").email("requestor@user.com").build();
+    private final User other = User.builder().id(2).name("Other").email("other@user.com").build();
+
+    @Test
+    void pageTest() {
+        ItemRequest request1 = getItemRequest(10, requestor, timestamp);
+        ItemRequest request2 = getItemRequest(11, other, timestamp.plusHours(1));
+        ItemRequest request3 = getItemRequest(12, other, timestamp.plusHours(2));
+        Item item = getItem(100, request2);
+
+        when(itemRequestRepository.findAllByOrderByCreatedDescIdDesc(any(Pageable.class)))
+                .thenReturn(List.of(request3, request2, request1));
+        when(itemRepository.findAllByItemRequestIdIn(anyCollection())).thenReturn(List.of(item));
+
+        ItemRequestFeed feed = new ItemRequestFeed(itemRequestRepository, itemRepository, true, 10);
+
+        assertThat(feed.page(requestor.getId(), 0, 10))
+                .extracting(ItemRequestGetResponseDto::getId)
+                .containsExactly(request3.getId(), request2.getId());
+        assertThat(feed.page(other.getId(), 0, 10))
+                .extracting(ItemRequestGetResponseDto::getId)
+                .containsExactly(request1.getId());
+        assertThat(feed.page(requestor.getId(), 1, 1))
+                .singleElement()
+                .satisfies(request -> {
+                    assertThat(request.getId()).isEqualTo(request2.getId());
+                    assertThat(request.getItems()).extracting(ItemRequestGetResponseDto.RequestedItem::getId)
+                            .containsExactly(item.getId());
+                });
+
+        verify(itemRequestRepository, times(1)).findAllByOrderByCreatedDescIdDesc(any(Pageable.class));
+        verify(itemRepository, times(1)).findAllByItemRequestIdIn(anyCollection());
+        verifyNoMoreInteractions(itemRequestRepository, itemRepository);
+    }
+
+    @Test
+    void updateTest() {
+        ItemRequest request1 = getItemRequest(10, other, timestamp);
+
+        when(itemRequestRepository.findAllByOrderByCreatedDescIdDesc(any(Pageable.class)))
+                .thenReturn(List.of(request1));
+
+        ItemRequestFeed feed = new ItemRequestFeed(itemRequestRepository, itemRepository, true, 10);
+        assertThat(feed.page(requestor.getId(), 0, 10)).hasSize(1);
+
+        ItemRequest request2 = getItemRequest(11, other, timestamp.plusHours(1));
+        feed.add(request2);
+        Item item = getItem(100, request2);
+        feed.putItem(item);
+
+        List<ItemRequestGetResponseDto> page = feed.page(requestor.getId(), 0, 10);
+        assertThat(page).extracting(ItemRequestGetResponseDto::getId)
+                .containsExactly(request2.getId(), request1.getId());
+        assertThat(page.get(0).getItems()).extracting(ItemRequestGetResponseDto.RequestedItem::getName)
+                .containsExactly(item.getName());
+
+        item.setName("Renamed");
+        feed.putItem(item);
+        assertThat(feed.page(requestor.getId(), 0, 10).get(0).getItems())
+                .extracting(ItemRequestGetResponseDto.RequestedItem::getName)
+                .containsExactly("Renamed");
+
+        feed.removeItem(item.getId());
+        assertThat(feed.page(requestor.getId(), 0, 10).get(0).getItems()).isEmpty();
+    }
+
+    @Test
+    void pageTest_BeyondWindow() {
+        ItemRequest request1 = getItemRequest(10, other, timestamp);
+        ItemRequest request2 = getItemRequest(11, other, timestamp.plusHours(1));
+
+        when(itemRequestRepository.findAllByOrderByCreatedDescIdDesc(any(Pageable.class)))
+                .thenReturn(List.of(request2, request1));
+
+        ItemRequestFeed feed = new ItemRequestFeed(itemRequestRepository, itemRepository, true, 2);
+
+        assertThat(feed.page(requestor.getId(), 0, 2)).hasSize(2);
+        assertThat(feed.page(requestor.getId(), 2, 2)).isNull();
+
+        feed.add(getItemRequest(12, other, timestamp.plusHours(2)));
+
+        assertThat(feed.page(requestor.getId(), 0, 2))
+                .extracting(ItemRequestGetResponseDto::getId)
+                .containsExactly(12, request2.getId());
+        assertThat(feed.page(requestor.getId(), 0, 3)).isNull();
+    }
+
+    @Test
+    void pageTest_Disabled() {
+        ItemRequestFeed feed = new ItemRequestFeed(itemRequestRepository, itemRepository, false, 10);
+
+        feed.add(getItemRequest(10, other, timestamp));
+
+        assertThat(feed.page(requestor.getId(), 0, 10)).isNull();
+        verifyNoInteractions(itemRequestRepository, itemRepository);
+    }
+
+    private ItemRequest getItemRequest(int id, User requestor, LocalDateTime created) {
+        return ItemRequest.builder()
+                .id(id)
+                .description("Request " + id)
+                .requestor(requestor)
+                .created(created)
+                .build();
+    }
+
+    private Item getItem(int id, ItemRequest itemRequest) {
+        return Item.builder()
+                .id(id)
+                .name("Item " + id)
+                .description("ItemDescr " + id)
+                .available(true)
+                .owner(other)
+                .itemRequest(itemRequest)
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -16,6 +17,7 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 
 import java.util.Arrays;
 import java.util.List;
@@ -38,9 +40,17 @@ public class ItemRequestServiceTest {
     @MockBean
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
     @MockBean
     private ItemRepository itemRepository;
 
+    @BeforeEach
+    void setUp() {
+        userCache.invalidateAll();
+    }
+
     @Test
     void getAllByRequestorIdTest() {
         User owner = getUser(1);
@@ -67,8 +77,8 @@ public class ItemRequestServiceTest {
 
         when(userRepository.findById(requestor.getId())).thenReturn(Optional.ofNullable(requestor));
         when(itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(eq(requestor.getId()), any(Pageable.class))).thenReturn(itemRequestList);
-        when(itemRepository.findAllByItemRequestId(eq(itemRequest1.getId()))).thenReturn(Arrays.asList(item1));
-        when(itemRepository.findAllByItemRequestId(eq(itemRequest2.getId()))).thenReturn(Arrays.asList(item2));
+        when(itemRepository.findAllByItemRequestIdIn(eq(List.of(itemRequest1.getId(), itemRequest2.getId()))))
+                .thenReturn(Arrays.asList(item1, item2));
 
         List<ItemRequestGetResponseDto> resultDtoList = itemRequestService.getAllByRequestorId(requestor.getId(), 0, 10);
 
@@ -94,8 +104,7 @@ public class ItemRequestServiceTest {
 
         verify(userRepository, times(1)).findById(eq(requestor.getId()));
         verify(itemRequestRepository, times(1)).findAllByRequestorIdOrderByCreatedDesc(eq(requestor.getId()), any(Pageable.class));
-        verify(itemRepository, times(1)).findAllByItemRequestId(itemRequest1.getId());
-        verify(itemRepository, times(1)).findAllByItemRequestId(itemRequest2.getId());
+        verify(itemRepository, times(1)).findAllByItemRequestIdIn(eq(List.of(itemRequest1.getId(), itemRequest2.getId())));
         verifyNoMoreInteractions(itemRequestRepository, userRepository, itemRepository);
     }
 
@@ -124,8 +133,8 @@ public class ItemRequestServiceTest {
         );
 
         when(itemRequestRepository.findAllByRequestorIdNotOrderByCreatedDesc(eq(owner.getId()), any(Pageable.class))).thenReturn(itemRequestList);
-        when(itemRepository.findAllByItemRequestId(eq(itemRequest1.getId()))).thenReturn(Arrays.asList(item1));
-        when(itemRepository.findAllByItemRequestId(eq(itemRequest2.getId()))).thenReturn(Arrays.asList(item2));
+        when(itemRepository.findAllByItemRequestIdIn(eq(List.of(itemRequest1.getId(), itemRequest2.getId()))))
+                .thenReturn(Arrays.asList(item1, item2));
 
         List<ItemRequestGetResponseDto> resultDtoList = itemRequestService.getAll(owner.getId(), 0, 10);
 
@@ -150,8 +159,7 @@ public class ItemRequestServiceTest {
         assertThat(resultDtoList.get(1).getItems().get(0).getRequestId(), equalTo(item2.getItemRequest().getId()));
 
         verify(itemRequestRepository, times(1)).findAllByRequestorIdNotOrderByCreatedDesc(eq(owner.getId()), any(Pageable.class));
-        verify(itemRepository, times(1)).findAllByItemRequestId(itemRequest1.getId());
-        verify(itemRepository, times(1)).findAllByItemRequestId(itemRequest2.getId());
+        verify(itemRepository, times(1)).findAllByItemRequestIdIn(eq(List.of(itemRequest1.getId(), itemRequest2.getId())));
         verifyNoMoreInteractions(itemRequestRepository, userRepository, itemRepository);
     }
 
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.feed.ItemRequestSubscriptions;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+public class ItemRequestSubscriptionsTest {
+    private final User requestor = User.builder().id(1).name("Requestor").email("requestor@user.com").build();
+    private final User other = User.builder().id(2).name("Other").email("other@user.com").build();
+
+    private ItemRequestSubscriptions subscriptions;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        subscriptions = new ItemRequestSubscriptions(new ObjectMapper().findAndRegisterModules(), 16,
+                Duration.ofMinutes(1), Duration.ofMinutes(1), 1);
+        ItemRequestService itemRequestService = mock(ItemRequestService.class);
+        when(itemRequestService.subscribe(anyInt()))
+                .thenAnswer(invocation -> subscriptions.subscribe(invocation.getArgument(0)));
+        mockMvc = MockMvcBuilders.standaloneSetup(new ItemRequestController(itemRequestService)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptions.shutdown();
+    }
+
+    @Test
+    void publishTest() throws Exception {
+        MvcResult requestorStream = subscribe(requestor.getId());
+        MvcResult otherStream = subscribe(other.getId());
+
+        ItemRequest itemRequest = ItemRequest.builder()
+                .id(10)
+                .description("Need a drill")
+                .requestor(requestor)
+                .created(LocalDateTime.of(2030, 1, 1, 12, 0))
+                .build();
+        subscriptions.requestCreated(itemRequest);
+        subscriptions.itemAttached(Item.builder()
+                .id(100)
+                .name("Drill")
+                .description("Drill")
+                .available(true)
+                .owner(other)
+                .itemRequest(itemRequest)
+                .build());
+
+        String otherEvents = awaitContent(otherStream, "event:item");
+        assertThat(otherEvents).contains("event:request\nid:10\ndata:{\"id\":10,\"description\":\"Need a drill\"");
+        assertThat(otherEvents).contains("event:item\nid:100\ndata:{\"id\":100,\"name\":\"Drill\"");
+
+        String requestorEvents = awaitContent(requestorStream, "event:item");
+        assertThat(requestorEvents).doesNotContain("event:request");
+    }
+
+    private MvcResult subscribe(int userId) throws Exception {
+        return mockMvc.perform(get("/requests/subscribe")
+                        .header("X-Sharer-User-Id", userId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        return content;
+    }
+}
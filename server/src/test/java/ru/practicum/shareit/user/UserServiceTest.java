@@ -1,15 +1,18 @@
 package ru.practicum.shareit.user;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.exception.DataConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserCache;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.Arrays;
@@ -30,13 +33,24 @@ public class UserServiceTest {
     @MockBean
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        userCache.invalidateAll();
+    }
+
     @Test
     void createTest() {
         UserDto inputDto = UserDto.builder().build();
 
         User user = getUser(1);
 
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
 
         UserDto resultDto = userService.create(inputDto);
 
@@ -44,7 +58,7 @@ public class UserServiceTest {
         assertThat(resultDto.getName(), equalTo(user.getName()));
         assertThat(resultDto.getEmail(), equalTo(user.getEmail()));
 
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
         verifyNoMoreInteractions(userRepository);
     }
 
@@ -52,13 +66,13 @@ public class UserServiceTest {
     void createTest_Conflict() {
         UserDto inputDto = UserDto.builder().build();
 
-        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("DataIntegrityViolationException"));
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("DataIntegrityViolationException"));
 
         DataConflictException e = assertThrows(DataConflictException.class, () -> {
             userService.create(inputDto);
         });
 
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
         verifyNoMoreInteractions(userRepository);
     }
 
@@ -125,7 +139,7 @@ public class UserServiceTest {
         User user = getUser(1);
 
         when(userRepository.findById(eq(user.getId()))).thenReturn(Optional.ofNullable(user));
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
 
         UserDto resultDto = userService.update(inputDto, user.getId());
 
@@ -134,7 +148,7 @@ public class UserServiceTest {
         assertThat(resultDto.getEmail(), equalTo(user.getEmail()));
 
         verify(userRepository, times(1)).findById(eq(user.getId()));
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
         verifyNoMoreInteractions(userRepository);
     }
 
@@ -161,14 +175,14 @@ public class UserServiceTest {
         User user = getUser(1);
 
         when(userRepository.findById(eq(user.getId()))).thenReturn(Optional.ofNullable(user));
-        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("DataIntegrityViolationException"));
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("DataIntegrityViolationException"));
 
         DataConflictException e = assertThrows(DataConflictException.class, () -> {
             userService.update(inputDto, user.getId());
         });
 
         verify(userRepository, times(1)).findById(eq(user.getId()));
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
         verifyNoMoreInteractions(userRepository);
     }
 
@@ -180,6 +194,60 @@ public class UserServiceTest {
         verifyNoMoreInteractions(userRepository);
     }
 
+    @Test
+    void userCacheTest() {
+        User user = getUser(1);
+
+        when(userRepository.findById(eq(user.getId()))).thenReturn(Optional.ofNullable(user));
+
+        userCache.get(user.getId());
+        User cached = userCache.get(user.getId());
+
+        assertThat(cached.getName(), equalTo(user.getName()));
+        verify(userRepository, times(1)).findById(eq(user.getId()));
+
+        userService.delete(user.getId());
+        userCache.get(user.getId());
+
+        verify(userRepository, times(1)).deleteById(eq(user.getId()));
+        verify(userRepository, times(2)).findById(eq(user.getId()));
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void userCacheTest_InvalidateAfterCommit() {
+        User user = getUser(1);
+        User updated = getUser(1);
+        updated.setName("Updated");
+
+        when(userRepository.findById(eq(user.getId()))).thenReturn(Optional.ofNullable(user));
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(updated);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.update(UserDto.builder().name("Updated").build(), user.getId());
+            userCache.get(user.getId());
+        });
+
+        when(userRepository.findById(eq(user.getId()))).thenReturn(Optional.of(updated));
+
+        assertThat(userCache.get(user.getId()).getName(), equalTo("Updated"));
+
+        verify(userRepository, times(3)).findById(eq(user.getId()));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void userCacheTest_NotFound() {
+        when(userRepository.findById(eq(1))).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> userCache.get(1));
+        assertThrows(NotFoundException.class, () -> userCache.get(1));
+
+        verify(userRepository, times(2)).findById(eq(1));
+        verifyNoMoreInteractions(userRepository);
+    }
+
     private User getUser(int id) {
         return User.builder()
                 .id(1)